@@ -20,7 +20,11 @@ package org.yardstickframework.cassandra;
 import com.datastax.driver.core.*;
 import com.datastax.driver.core.exceptions.*;
 import org.yardstickframework.*;
+import org.yardstickframework.cassandra.proxy.*;
+import org.yardstickframework.cassandra.util.*;
 
+import java.net.*;
+import java.util.*;
 import java.util.concurrent.*;
 
 import static org.yardstickframework.BenchmarkUtils.*;
@@ -29,33 +33,110 @@ import static org.yardstickframework.BenchmarkUtils.*;
  * Abstract class for Ignite benchmarks.
  */
 public abstract class CassandraAbstractBenchmark extends BenchmarkDriverAdapter {
+    /** Cassandra native protocol port. */
+    private static final int CASSANDRA_PORT = 9042;
+
     /** Arguments. */
     protected final CassandraBenchmarkArguments args = new CassandraBenchmarkArguments();
 
     /** Working session. */
     protected Session session;
 
+    /** Schema profile. */
+    protected CassandraSchemaProfile schema;
+
     /** Cluster. */
     private Cluster cluster;
 
+    /** Fault proxies, {@code null} if disabled. */
+    private CassandraFaultProxies proxies;
+
+    /** Per-host latency tracker. */
+    private final CassandraLatencyTracker latencyTracker = new CassandraLatencyTracker();
+
+    /** Slow query log, {@code null} if disabled. */
+    private CassandraSlowQueryLog slowQueryLog;
+
+    /** Time spent in {@link Session#executeAsync(Statement)} by benchmark threads. */
+    private final CassandraLatencyHistogram submitTime = new CassandraLatencyHistogram();
+
     /** {@inheritDoc} */
     @Override public void setUp(BenchmarkConfiguration cfg) throws Exception {
         super.setUp(cfg);
 
         jcommander(cfg.commandLineArguments(), args, "<cassandra-driver>");
 
-        cluster = Cluster.builder().addContactPoint(cfg.hostName()).build();
+        schema = CassandraSchemaProfile.create(args);
+
+        println(cfg, "Using " + schema);
+
+        Cluster.Builder bldr = Cluster.builder();
+
+        List<String> contactPoints = contactPoints();
+
+        if (args.faultProxy()) {
+            proxies = new CassandraFaultProxies(new CassandraFaultConfig(args.faultProxyDelayDistribution(),
+                args.faultProxyDelay(), args.faultProxyBandwidth(), args.faultProxyResetRate()),
+                args.faultProxyHosts());
+
+            List<InetSocketAddress> addrs = new ArrayList<>(contactPoints.size());
+
+            for (String host : contactPoints)
+                addrs.add(proxies.proxy(new InetSocketAddress(host, CASSANDRA_PORT)));
+
+            bldr.addContactPointsWithPorts(addrs).withAddressTranslater(proxies);
+        }
+        else
+            bldr.addContactPoints(contactPoints.toArray(new String[contactPoints.size()]));
+
+        bldr.withPoolingOptions(poolingOptions()).withCompression(args.protocolCompression());
+
+        if (args.protocolVersion() != null)
+            bldr.withProtocolVersion(args.protocolVersion());
+
+        println(cfg, "Connecting [contactPoints=" + contactPoints + ", protocolVersion=" +
+            (args.protocolVersion() != null ? args.protocolVersion() : "negotiated") +
+            ", compression=" + args.protocolCompression() + ']');
+
+        cluster = bldr.build();
+
+        cluster.register(latencyTracker);
+
+        if (args.slowQueryThreshold() > 0)
+            slowQueryLog = new CassandraSlowQueryLog(cfg, args.slowQueryThreshold(), args.slowQuerySampleRate());
 
         dropKeySpaceQuietly(cluster, args.keySpaceName());
 
-        session = createKeySpace(cluster, args.keySpaceName(), args.backups());
+        session = createKeySpace(cluster, args.keySpaceName(), args.backups(), schema.durableWrites());
+
+        resetStatistics();
     }
 
     /** {@inheritDoc} */
     @Override public void tearDown() throws Exception {
+        if (slowQueryLog != null)
+            slowQueryLog.close();
+
+        for (Map.Entry<Host, CassandraLatencyTracker.HostStatistics> e : latencyTracker.statistics().entrySet())
+            println(cfg, "Host latency [host=" + nodeAddress(e.getKey()) + ", " + e.getValue() + ']');
+
+        cluster.unregister(latencyTracker);
+
+        if (submitTime.count() > 0)
+            println(cfg, "Time in executeAsync [requests=" + submitTime.count() + ", p50=" +
+                submitTime.percentile(50) + "us, p99=" + submitTime.percentile(99) + "us, max=" +
+                submitTime.max() + "us]");
+
         session.close();
 
         cluster.close();
+
+        if (proxies != null) {
+            for (CassandraFaultProxy proxy : proxies.proxies())
+                println(cfg, proxy.toString());
+
+            proxies.close();
+        }
     }
 
     /** {@inheritDoc} */
@@ -63,7 +144,14 @@ public abstract class CassandraAbstractBenchmark extends BenchmarkDriverAdapter
         String desc = BenchmarkUtils.description(cfg, this);
 
         return desc.isEmpty() ?
-            getClass().getSimpleName() + args.description() + cfg.defaultDescription() : desc;
+            getClass().getSimpleName() + args.description() + descriptionSuffix() + cfg.defaultDescription() : desc;
+    }
+
+    /**
+     * @return Benchmark specific arguments appended to default description.
+     */
+    protected String descriptionSuffix() {
+        return "";
     }
 
     /** {@inheritDoc} */
@@ -71,6 +159,186 @@ public abstract class CassandraAbstractBenchmark extends BenchmarkDriverAdapter
         return BenchmarkUtils.usage(args);
     }
 
+    /**
+     * @return Working session.
+     */
+    public Session session() {
+        return session;
+    }
+
+    /**
+     * @return Per-host latency tracker.
+     */
+    public CassandraLatencyTracker latencyTracker() {
+        return latencyTracker;
+    }
+
+    /**
+     * @param host Host known to the driver.
+     * @return Address of the Cassandra node, differs from the host address when fault proxy is enabled.
+     */
+    public InetSocketAddress nodeAddress(Host host) {
+        InetSocketAddress addr = host.getSocketAddress();
+
+        InetSocketAddress target = proxies != null ? proxies.target(addr) : null;
+
+        return target != null ? target : addr;
+    }
+
+    /**
+     * @return Histogram of time spent in {@link Session#executeAsync(Statement)}.
+     */
+    public CassandraLatencyHistogram submitTime() {
+        return submitTime;
+    }
+
+    /**
+     * Discards driver statistics collected so far, so that tear down summaries cover benchmark operations
+     * only. Invoked at the end of set up, benchmarks that populate data invoke it again once population is done.
+     */
+    protected void resetStatistics() {
+        latencyTracker.reset();
+
+        submitTime.reset();
+    }
+
+    /**
+     * Flushes tables on every node and reads their on-disk size over JMX.
+     *
+     * @param tblNames Table names, lower case for unquoted identifiers.
+     * @return Live disk space used in bytes by table, summed over all nodes. Secondary index tables are
+     *      reported under {@code table.index} names. Empty map if sizes cannot be read.
+     */
+    protected Map<String, Long> diskSpaceUsed(String... tblNames) {
+        Collection<InetAddress> hosts = new LinkedHashSet<>();
+
+        // Metadata holds proxy addresses when fault proxy is enabled.
+        if (proxies != null) {
+            for (CassandraFaultProxy proxy : proxies.proxies())
+                hosts.add(proxy.target().getAddress());
+        }
+        else {
+            for (Host host : cluster.getMetadata().getAllHosts())
+                hosts.add(host.getAddress());
+        }
+
+        try {
+            return CassandraBenchmarkUtils.liveDiskSpaceUsed(hosts, args.jmxPort(), args.keySpaceName().toLowerCase(),
+                tblNames);
+        }
+        catch (Exception e) {
+            println(cfg, "Failed to read table sizes over JMX [hosts=" + hosts + ", port=" + args.jmxPort() +
+                ", err=" + e + ']');
+
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * Executes statement, sampling it into slow query log if the log is enabled. Statements that already
+     * have tracing enabled are always passed to the log.
+     *
+     * @param st Statement.
+     * @return Result set.
+     */
+    protected ResultSet execute(Statement st) {
+        if (slowQueryLog == null || (!st.isTracing() && !slowQueryLog.sample()))
+            return executeAsync(st).getUninterruptibly();
+
+        st.enableTracing();
+
+        long start = System.nanoTime();
+
+        ResultSet res = executeAsync(st).getUninterruptibly();
+
+        slowQueryLog.onTraced(st, res.getExecutionInfo(), System.nanoTime() - start);
+
+        return res;
+    }
+
+    /**
+     * Executes statement asynchronously. Time spent in this call is recorded, it covers query plan, connection
+     * borrow and request write, and grows when the driver waits for a connection with free request slots.
+     *
+     * @param st Statement.
+     * @return Future.
+     */
+    protected ResultSetFuture executeAsync(Statement st) {
+        long start = System.nanoTime();
+
+        ResultSetFuture fut = session.executeAsync(st);
+
+        submitTime.record(System.nanoTime() - start);
+
+        return fut;
+    }
+
+    /**
+     * @return Contact points.
+     */
+    private List<String> contactPoints() {
+        List<String> res = new ArrayList<>();
+
+        if (args.contactPoints() != null) {
+            for (String host : args.contactPoints().split(",")) {
+                if (!host.trim().isEmpty())
+                    res.add(host.trim());
+            }
+        }
+
+        if (res.isEmpty())
+            res.add(cfg.hostName());
+
+        return res;
+    }
+
+    /**
+     * @return Pooling options for local hosts.
+     */
+    private PoolingOptions poolingOptions() {
+        PoolingOptions opts = new PoolingOptions();
+
+        int core = args.coreConnectionsPerHost();
+        int max = args.maxConnectionsPerHost();
+
+        // Driver 2.1.5 uses a single connection per host with protocol v3, pool sizing applies to v1 and v2 only.
+        boolean singleConn = args.protocolVersion() == null || args.protocolVersion().compareTo(ProtocolVersion.V2) > 0;
+
+        if ((core > 0 || max > 0) && singleConn)
+            throw new IllegalArgumentException("Connection pool size options (-cph, -mcph) require " +
+                "protocol version 1 or 2 (-pv).");
+
+        if (core > 0 || max > 0) {
+            int dfltCore = opts.getCoreConnectionsPerHost(HostDistance.LOCAL);
+
+            if (core == 0)
+                core = Math.min(dfltCore, max);
+
+            if (max == 0)
+                max = Math.max(opts.getMaxConnectionsPerHost(HostDistance.LOCAL), core);
+
+            if (core > max)
+                throw new IllegalArgumentException("Core connections per host exceed max connections per host " +
+                    "[core=" + core + ", max=" + max + ']');
+
+            // Driver requires core <= max on every call, so lower core first.
+            opts.setCoreConnectionsPerHost(HostDistance.LOCAL, Math.min(core, dfltCore));
+            opts.setMaxConnectionsPerHost(HostDistance.LOCAL, max);
+            opts.setCoreConnectionsPerHost(HostDistance.LOCAL, core);
+        }
+
+        if (args.maxRequestsPerConnection() > 0) {
+            // With a single connection per host the per-host limit bounds in-flight requests of that connection.
+            if (singleConn)
+                opts.setMaxSimultaneousRequestsPerHostThreshold(HostDistance.LOCAL, args.maxRequestsPerConnection());
+            else
+                opts.setMaxSimultaneousRequestsPerConnectionThreshold(HostDistance.LOCAL,
+                    args.maxRequestsPerConnection());
+        }
+
+        return opts;
+    }
+
     /**
      * @param max Key range.
      * @return Next key.
@@ -94,13 +362,14 @@ public abstract class CassandraAbstractBenchmark extends BenchmarkDriverAdapter
      * @param cluster Cluster.
      * @param keySpaceName Key space.
      * @param backups Count backups.
+     * @param durableWrites Durable writes.
      * @return Session.
      */
-    protected Session createKeySpace(Cluster cluster, String keySpaceName, int backups) {
+    protected Session createKeySpace(Cluster cluster, String keySpaceName, int backups, boolean durableWrites) {
         try (Session session = cluster.connect()) {
             session.execute("CREATE KEYSPACE " + keySpaceName
                 + " WITH REPLICATION = { 'class' : 'SimpleStrategy', 'replication_factor' : " + backups + " }"
-                + " AND DURABLE_WRITES = false;");
+                + " AND DURABLE_WRITES = " + durableWrites + ";");
         }
 
         return cluster.connect(keySpaceName);
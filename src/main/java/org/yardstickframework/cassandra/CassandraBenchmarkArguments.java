@@ -18,6 +18,7 @@
 package org.yardstickframework.cassandra;
 
 import com.beust.jcommander.*;
+import com.datastax.driver.core.*;
 
 /**
  * Input arguments for Ignite benchmarks.
@@ -36,6 +37,250 @@ public class CassandraBenchmarkArguments {
     @Parameter(names = {"-ks", "--keySpaceName"}, description = "Key space", required = true)
     private String keySpaceName;
 
+    /** */
+    @Parameter(names = {"-rcl", "--readConsistency"}, description = "Read consistency level")
+    private String readConsistency = "ONE";
+
+    /** */
+    @Parameter(names = {"-wcl", "--writeConsistency"}, description = "Write consistency level")
+    private String writeConsistency = "ALL";
+
+    /** */
+    @Parameter(names = {"-vf", "--verify"}, description = "Verify that acknowledged writes are readable")
+    private boolean verify;
+
+    /** */
+    @Parameter(names = {"-rm", "--rampMode"}, description = "Ramp mode (none, rate, concurrency)")
+    private String rampMode = "none";
+
+    /** */
+    @Parameter(names = {"-rst", "--rampStart"},
+        description = "Initial ramp rate in ops/sec or number of threads (default 1000 ops/sec or 4 threads)")
+    private Double rampStart;
+
+    /** */
+    @Parameter(names = {"-rsi", "--rampStep"},
+        description = "Ramp increment per step in ops/sec or threads (default 1000 ops/sec or 4 threads)")
+    private Double rampStep;
+
+    /** */
+    @Parameter(names = {"-rsd", "--rampStepDuration"}, description = "Ramp step duration in seconds")
+    private long rampStepDuration = 30;
+
+    /** */
+    @Parameter(names = {"-slo", "--p99Slo"}, description = "P99 latency SLO in milliseconds that stops ramp")
+    private double p99Slo = 10;
+
+    /** */
+    @Parameter(names = {"-mer", "--maxErrorRate"}, description = "Error rate that stops ramp")
+    private double maxErrorRate = 0.01;
+
+    /** */
+    @Parameter(names = {"-fp", "--faultProxy"}, description = "Route driver connections through local fault proxies")
+    private boolean faultProxy;
+
+    /** */
+    @Parameter(names = {"-fph", "--faultProxyHosts"},
+        description = "Comma separated hosts to inject faults for, all hosts if not set")
+    private String faultProxyHosts;
+
+    /** */
+    @Parameter(names = {"-fpd", "--faultProxyDelay"}, description = "Mean injected delay in milliseconds")
+    private double faultProxyDelay;
+
+    /** */
+    @Parameter(names = {"-fpdd", "--faultProxyDelayDistribution"},
+        description = "Injected delay distribution (fixed, uniform, exponential)")
+    private String faultProxyDelayDistribution = "fixed";
+
+    /** */
+    @Parameter(names = {"-fpb", "--faultProxyBandwidth"},
+        description = "Bandwidth cap in bytes per second per connection and direction, 0 for unlimited")
+    private long faultProxyBandwidth;
+
+    /** */
+    @Parameter(names = {"-fpr", "--faultProxyResetRate"},
+        description = "Injected connection resets per connection per second")
+    private double faultProxyResetRate;
+
+    /** */
+    @Parameter(names = {"-co", "--coalesceReads"}, description = "Coalesce concurrent reads of the same key, not compatible with -vf")
+    private boolean coalesceReads;
+
+    /** */
+    @Parameter(names = {"-mgm", "--multiGetMode"}, description = "Multi-get mode (in, async, token_aware)")
+    private String multiGetMode = "in";
+
+    /** */
+    @Parameter(names = {"-mgs", "--multiGetSize"}, description = "Number of keys per multi-get")
+    private int multiGetSize = 100;
+
+    /** */
+    @Parameter(names = {"-mgc", "--multiGetConcurrency"}, description = "Maximum in-flight requests per multi-get")
+    private int multiGetConcurrency = 32;
+
+    /** */
+    @Parameter(names = {"-sp", "--schemaProfile"}, description = "Schema profile (default, stcs, lcs, twcs)")
+    private String schemaProfile = "default";
+
+    /** */
+    @Parameter(names = {"-cs", "--compaction"},
+        description = "Compaction strategy (stcs, lcs, twcs or class name), overrides schema profile")
+    private String compaction;
+
+    /** */
+    @Parameter(names = {"-cmp", "--compression"}, description = "SSTable compressor class, overrides schema profile")
+    private String compression;
+
+    /** */
+    @Parameter(names = {"-cck", "--compressionChunkKb"}, description = "SSTable compression chunk length in KB")
+    private int compressionChunkKb;
+
+    /** */
+    @Parameter(names = {"-kc", "--keysCaching"}, description = "Key cache setting (ALL, NONE)")
+    private String keysCaching;
+
+    /** */
+    @Parameter(names = {"-rc", "--rowsPerPartitionCaching"}, description = "Row cache setting (ALL, NONE or number)")
+    private String rowsPerPartitionCaching;
+
+    /** */
+    @Parameter(names = {"-bfp", "--bloomFilterFpChance"}, description = "Bloom filter false positive chance")
+    private double bloomFilterFpChance;
+
+    /** */
+    @Parameter(names = {"-dw", "--durableWrites"}, arity = 1, description = "Durable writes, overrides schema profile")
+    private Boolean durableWrites;
+
+    /** */
+    @Parameter(names = {"-qi", "--queryIndex"}, description = "Salary query index (legacy, sasi, lookup)")
+    private String queryIndex = "legacy";
+
+    /** */
+    @Parameter(names = {"-sbw", "--salaryBucketWidth"}, description = "Salary bucket width of lookup table")
+    private double salaryBucketWidth = 100_000;
+
+    /** */
+    @Parameter(names = {"-cv", "--collectionVariant"},
+        description = "Person attributes column (map, set, frozen_udt, frozen_list)")
+    private String collectionVariant = "map";
+
+    /** */
+    @Parameter(names = {"-ceo", "--collectionElementOps"},
+        description = "Fraction of writes that update a single collection element")
+    private double collectionElementOps = 0.5;
+
+    /** */
+    @Parameter(names = {"-ttl", "--ttl"}, description = "TTL of written rows in seconds, 0 disables expiration")
+    private int ttl;
+
+    /** */
+    @Parameter(names = {"-dr", "--deleteRate"}, description = "Fraction of operations that delete data")
+    private double deleteRate = 0.1;
+
+    /** */
+    @Parameter(names = {"-rdp", "--rangeDeleteProportion"}, description = "Fraction of deletes that delete row ranges")
+    private double rangeDeleteProportion;
+
+    /** */
+    @Parameter(names = {"-wpn", "--widePartitions"}, description = "Number of wide partitions")
+    private int widePartitions = 100;
+
+    /** */
+    @Parameter(names = {"-ttr", "--tombstoneTraceRate"}, description = "Fraction of reads traced to count tombstones")
+    private double tombstoneTraceRate = 0.01;
+
+    /** */
+    @Parameter(names = {"-tsi", "--tombstoneStatsInterval"}, description = "Tombstone statistics interval in seconds")
+    private long tombstoneStatsInterval = 10;
+
+    /** */
+    @Parameter(names = {"-fmt", "--format"}, description = "Person storage format (columnar, compact, jdk)")
+    private String format = "columnar";
+
+    /** */
+    @Parameter(names = {"-cp", "--contactPoints"},
+        description = "Comma separated contact points, host name of the driver configuration if not set")
+    private String contactPoints;
+
+    /** */
+    @Parameter(names = {"-cph", "--coreConnectionsPerHost"},
+        description = "Core connections per local host, 0 for driver default, requires -pv 1 or 2")
+    private int coreConnectionsPerHost;
+
+    /** */
+    @Parameter(names = {"-mcph", "--maxConnectionsPerHost"},
+        description = "Max connections per local host, 0 for driver default, requires -pv 1 or 2")
+    private int maxConnectionsPerHost;
+
+    /** */
+    @Parameter(names = {"-mrpc", "--maxRequestsPerConnection"},
+        description = "In-flight requests per connection above which new connection is opened with -pv 1 or 2, " +
+            "max in-flight requests per host otherwise, 0 for driver default")
+    private int maxRequestsPerConnection;
+
+    /** */
+    @Parameter(names = {"-pv", "--protocolVersion"}, description = "Native protocol version, 0 to negotiate")
+    private int protocolVersion;
+
+    /** */
+    @Parameter(names = {"-pc", "--protocolCompression"}, description = "Native protocol compression (none, lz4, snappy)")
+    private String protocolCompression = "none";
+
+    /** */
+    @Parameter(names = {"-jmxp", "--jmxPort"}, description = "JMX port of Cassandra nodes, used to read table sizes")
+    private int jmxPort = 7199;
+
+    /** */
+    @Parameter(names = {"-sqt", "--slowQueryThreshold"},
+        description = "Latency threshold of sampled slow query log in milliseconds, 0 disables the log")
+    private long slowQueryThreshold;
+
+    /** */
+    @Parameter(names = {"-sqs", "--slowQuerySampleRate"}, description = "Fraction of requests executed with tracing")
+    private double slowQuerySampleRate = 0.001;
+
+    /** */
+    @Parameter(names = {"-wf", "--workloadFile"}, description = "Workload properties file, overrides workload arguments")
+    private String workloadFile;
+
+    /** */
+    @Parameter(names = {"-rp", "--readProportion"}, description = "Proportion of read operations")
+    private double readProportion = 0.5;
+
+    /** */
+    @Parameter(names = {"-up", "--updateProportion"}, description = "Proportion of update operations")
+    private double updateProportion = 0.5;
+
+    /** */
+    @Parameter(names = {"-ip", "--insertProportion"}, description = "Proportion of insert operations")
+    private double insertProportion;
+
+    /** */
+    @Parameter(names = {"-scp", "--scanProportion"}, description = "Proportion of scan operations")
+    private double scanProportion;
+
+    /** */
+    @Parameter(names = {"-rmwp", "--readModifyWriteProportion"},
+        description = "Proportion of read-modify-write operations")
+    private double readModifyWriteProportion;
+
+    /** */
+    @Parameter(names = {"-kd", "--keyDistribution"}, description = "Key distribution (uniform, zipfian, latest)")
+    private String keyDistribution = "uniform";
+
+    /** */
+    @Parameter(names = {"-zc", "--zipfianConstant"}, description = "Zipfian constant")
+    private double zipfianConstant = 0.99;
+
+    /** */
+    @Parameter(names = {"-rs", "--recordSize"}, description = "Record size in bytes")
+    private int recordSize = 100;
+
+    /** */
+    @Parameter(names = {"-msl", "--maxScanLength"}, description = "Maximum number of records returned by scan")
+    private int maxScanLength = 100;
+
     /**
      * @return Backups.
      */
@@ -57,11 +302,449 @@ public class CassandraBenchmarkArguments {
         return keySpaceName;
     }
 
+    /**
+     * @return Read consistency level.
+     */
+    public ConsistencyLevel readConsistency() {
+        return ConsistencyLevel.valueOf(readConsistency.toUpperCase());
+    }
+
+    /**
+     * @return Write consistency level.
+     */
+    public ConsistencyLevel writeConsistency() {
+        return ConsistencyLevel.valueOf(writeConsistency.toUpperCase());
+    }
+
+    /**
+     * @return {@code True} if acknowledged writes should be verified.
+     */
+    public boolean verify() {
+        return verify;
+    }
+
+    /**
+     * @return Ramp mode.
+     */
+    public String rampMode() {
+        return rampMode;
+    }
+
+    /**
+     * @return Initial ramp rate in ops/sec or number of threads.
+     */
+    public double rampStart() {
+        return rampStart != null ? rampStart : "concurrency".equalsIgnoreCase(rampMode) ? 4 : 1000;
+    }
+
+    /**
+     * @return Ramp increment per step.
+     */
+    public double rampStep() {
+        return rampStep != null ? rampStep : "concurrency".equalsIgnoreCase(rampMode) ? 4 : 1000;
+    }
+
+    /**
+     * @return Ramp step duration in seconds.
+     */
+    public long rampStepDuration() {
+        return rampStepDuration;
+    }
+
+    /**
+     * @return P99 latency SLO in milliseconds.
+     */
+    public double p99Slo() {
+        return p99Slo;
+    }
+
+    /**
+     * @return Error rate that stops ramp.
+     */
+    public double maxErrorRate() {
+        return maxErrorRate;
+    }
+
+    /**
+     * @return {@code True} if driver connections are routed through fault proxies.
+     */
+    public boolean faultProxy() {
+        return faultProxy;
+    }
+
+    /**
+     * @return Comma separated hosts to inject faults for.
+     */
+    public String faultProxyHosts() {
+        return faultProxyHosts;
+    }
+
+    /**
+     * @return Mean injected delay in milliseconds.
+     */
+    public double faultProxyDelay() {
+        return faultProxyDelay;
+    }
+
+    /**
+     * @return Injected delay distribution.
+     */
+    public String faultProxyDelayDistribution() {
+        return faultProxyDelayDistribution;
+    }
+
+    /**
+     * @return Bandwidth cap in bytes per second.
+     */
+    public long faultProxyBandwidth() {
+        return faultProxyBandwidth;
+    }
+
+    /**
+     * @return Injected connection resets per connection per second.
+     */
+    public double faultProxyResetRate() {
+        return faultProxyResetRate;
+    }
+
+    /**
+     * @return {@code True} if concurrent reads of the same key are coalesced.
+     */
+    public boolean coalesceReads() {
+        return coalesceReads;
+    }
+
+    /**
+     * @return Multi-get mode.
+     */
+    public String multiGetMode() {
+        return multiGetMode;
+    }
+
+    /**
+     * @return Number of keys per multi-get.
+     */
+    public int multiGetSize() {
+        return multiGetSize;
+    }
+
+    /**
+     * @return Maximum in-flight requests per multi-get.
+     */
+    public int multiGetConcurrency() {
+        return multiGetConcurrency;
+    }
+
+    /**
+     * @return Schema profile name.
+     */
+    public String schemaProfile() {
+        return schemaProfile;
+    }
+
+    /**
+     * @return Compaction strategy.
+     */
+    public String compaction() {
+        return compaction;
+    }
+
+    /**
+     * @return SSTable compressor class.
+     */
+    public String compression() {
+        return compression;
+    }
+
+    /**
+     * @return SSTable compression chunk length in KB.
+     */
+    public int compressionChunkKb() {
+        return compressionChunkKb;
+    }
+
+    /**
+     * @return Key cache setting.
+     */
+    public String keysCaching() {
+        return keysCaching;
+    }
+
+    /**
+     * @return Row cache setting.
+     */
+    public String rowsPerPartitionCaching() {
+        return rowsPerPartitionCaching;
+    }
+
+    /**
+     * @return Bloom filter false positive chance.
+     */
+    public double bloomFilterFpChance() {
+        return bloomFilterFpChance;
+    }
+
+    /**
+     * @return Durable writes or {@code null} if not set.
+     */
+    public Boolean durableWrites() {
+        return durableWrites;
+    }
+
+    /**
+     * @return Salary query index.
+     */
+    public String queryIndex() {
+        return queryIndex;
+    }
+
+    /**
+     * @return Salary bucket width of lookup table.
+     */
+    public double salaryBucketWidth() {
+        return salaryBucketWidth;
+    }
+
+    /**
+     * @return Person attributes column variant.
+     */
+    public String collectionVariant() {
+        return collectionVariant;
+    }
+
+    /**
+     * @return Fraction of writes that update a single collection element.
+     */
+    public double collectionElementOps() {
+        return collectionElementOps;
+    }
+
+    /**
+     * @return TTL of written rows in seconds.
+     */
+    public int ttl() {
+        return ttl;
+    }
+
+    /**
+     * @return Fraction of operations that delete data.
+     */
+    public double deleteRate() {
+        return deleteRate;
+    }
+
+    /**
+     * @return Fraction of deletes that delete row ranges.
+     */
+    public double rangeDeleteProportion() {
+        return rangeDeleteProportion;
+    }
+
+    /**
+     * @return Number of wide partitions.
+     */
+    public int widePartitions() {
+        return widePartitions;
+    }
+
+    /**
+     * @return Fraction of reads traced to count tombstones.
+     */
+    public double tombstoneTraceRate() {
+        return tombstoneTraceRate;
+    }
+
+    /**
+     * @return Tombstone statistics interval in seconds.
+     */
+    public long tombstoneStatsInterval() {
+        return tombstoneStatsInterval;
+    }
+
+    /**
+     * @return Person storage format.
+     */
+    public String format() {
+        return format;
+    }
+
+    /**
+     * @return Comma separated contact points or {@code null} if not set.
+     */
+    public String contactPoints() {
+        return contactPoints;
+    }
+
+    /**
+     * @return Core connections per local host, 0 for driver default.
+     */
+    public int coreConnectionsPerHost() {
+        return coreConnectionsPerHost;
+    }
+
+    /**
+     * @return Max connections per local host, 0 for driver default.
+     */
+    public int maxConnectionsPerHost() {
+        return maxConnectionsPerHost;
+    }
+
+    /**
+     * @return In-flight requests per connection above which new connection is opened with protocol v1 or v2,
+     *      max in-flight requests per host with v3, 0 for driver default.
+     */
+    public int maxRequestsPerConnection() {
+        return maxRequestsPerConnection;
+    }
+
+    /**
+     * @return Native protocol version or {@code null} to negotiate.
+     */
+    public ProtocolVersion protocolVersion() {
+        return protocolVersion > 0 ? ProtocolVersion.fromInt(protocolVersion) : null;
+    }
+
+    /**
+     * @return Native protocol compression.
+     */
+    public ProtocolOptions.Compression protocolCompression() {
+        return ProtocolOptions.Compression.valueOf(protocolCompression.toUpperCase());
+    }
+
+    /**
+     * @return JMX port of Cassandra nodes.
+     */
+    public int jmxPort() {
+        return jmxPort;
+    }
+
+    /**
+     * @return Latency threshold of sampled slow query log in milliseconds.
+     */
+    public long slowQueryThreshold() {
+        return slowQueryThreshold;
+    }
+
+    /**
+     * @return Fraction of requests executed with tracing.
+     */
+    public double slowQuerySampleRate() {
+        return slowQuerySampleRate;
+    }
+
+    /**
+     * @return Workload properties file.
+     */
+    public String workloadFile() {
+        return workloadFile;
+    }
+
+    /**
+     * @return Proportion of read operations.
+     */
+    public double readProportion() {
+        return readProportion;
+    }
+
+    /**
+     * @return Proportion of update operations.
+     */
+    public double updateProportion() {
+        return updateProportion;
+    }
+
+    /**
+     * @return Proportion of insert operations.
+     */
+    public double insertProportion() {
+        return insertProportion;
+    }
+
+    /**
+     * @return Proportion of scan operations.
+     */
+    public double scanProportion() {
+        return scanProportion;
+    }
+
+    /**
+     * @return Proportion of read-modify-write operations.
+     */
+    public double readModifyWriteProportion() {
+        return readModifyWriteProportion;
+    }
+
+    /**
+     * @return Key distribution name.
+     */
+    public String keyDistribution() {
+        return keyDistribution;
+    }
+
+    /**
+     * @return Zipfian constant.
+     */
+    public double zipfianConstant() {
+        return zipfianConstant;
+    }
+
+    /**
+     * @return Record size in bytes.
+     */
+    public int recordSize() {
+        return recordSize;
+    }
+
+    /**
+     * @return Maximum number of records returned by scan.
+     */
+    public int maxScanLength() {
+        return maxScanLength;
+    }
+
     /**
      * @return Description.
      */
     public String description() {
-        return "-ks=" + keySpaceName + "-b=" + backups;
+        String desc = "-ks=" + keySpaceName + "-b=" + backups + "-sp=" + schemaProfile;
+
+        if (compaction != null)
+            desc += "-cs=" + compaction;
+
+        if (compression != null)
+            desc += "-cmp=" + compression;
+
+        if (compressionChunkKb > 0)
+            desc += "-cck=" + compressionChunkKb;
+
+        if (keysCaching != null)
+            desc += "-kc=" + keysCaching;
+
+        if (rowsPerPartitionCaching != null)
+            desc += "-rc=" + rowsPerPartitionCaching;
+
+        if (bloomFilterFpChance > 0)
+            desc += "-bfp=" + bloomFilterFpChance;
+
+        if (durableWrites != null)
+            desc += "-dw=" + durableWrites;
+
+        if (coreConnectionsPerHost > 0)
+            desc += "-cph=" + coreConnectionsPerHost;
+
+        if (maxConnectionsPerHost > 0)
+            desc += "-mcph=" + maxConnectionsPerHost;
+
+        if (maxRequestsPerConnection > 0)
+            desc += "-mrpc=" + maxRequestsPerConnection;
+
+        if (protocolVersion > 0)
+            desc += "-pv=" + protocolVersion;
+
+        if (!"none".equalsIgnoreCase(protocolCompression))
+            desc += "-pc=" + protocolCompression;
+
+        return desc;
     }
 
     /** {@inheritDoc} */
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.yardstickframework.cassandra;
+
+import com.datastax.driver.core.*;
+import org.yardstickframework.cassandra.util.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Driver latency tracker that keeps latency histogram per host. Driver does not report failed requests
+ * to trackers, so errors are not accounted per host.
+ */
+public class CassandraLatencyTracker implements LatencyTracker {
+    /** Statistics per host. */
+    private final ConcurrentMap<Host, HostStatistics> stats = new ConcurrentHashMap<>();
+
+    /** {@inheritDoc} */
+    @Override public void update(Host host, long newLatencyNanos) {
+        HostStatistics hostStats = stats.get(host);
+
+        if (hostStats == null) {
+            HostStatistics old = stats.putIfAbsent(host, hostStats = new HostStatistics());
+
+            if (old != null)
+                hostStats = old;
+        }
+
+        hostStats.latencies.record(newLatencyNanos);
+    }
+
+    /**
+     * Discards statistics of all hosts.
+     */
+    public void reset() {
+        stats.clear();
+    }
+
+    /**
+     * @param host Host.
+     * @return Statistics of the host or {@code null} if host was not queried yet.
+     */
+    public HostStatistics statistics(Host host) {
+        return stats.get(host);
+    }
+
+    /**
+     * @return Statistics of all queried hosts.
+     */
+    public Map<Host, HostStatistics> statistics() {
+        return Collections.unmodifiableMap(stats);
+    }
+
+    /**
+     * Latency statistics of a single host.
+     */
+    public static class HostStatistics {
+        /** Latencies. */
+        private final CassandraLatencyHistogram latencies = new CassandraLatencyHistogram();
+
+        /**
+         * @return Latencies.
+         */
+        public CassandraLatencyHistogram latencies() {
+            return latencies;
+        }
+
+        /** {@inheritDoc} */
+        @Override public String toString() {
+            long[] snapshot = latencies.snapshot();
+
+            return "requests=" + CassandraLatencyHistogram.count(snapshot) +
+                ", p50=" + CassandraLatencyHistogram.percentile(snapshot, 50) + "us" +
+                ", p99=" + CassandraLatencyHistogram.percentile(snapshot, 99) + "us" +
+                ", p99.9=" + CassandraLatencyHistogram.percentile(snapshot, 99.9) + "us" +
+                ", max=" + latencies.max() + "us";
+        }
+    }
+}
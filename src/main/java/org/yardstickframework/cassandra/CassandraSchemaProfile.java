@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.yardstickframework.cassandra;
+
+/**
+ * Schema profile: keyspace durability and table options (compaction, compression, caching, bloom filter)
+ * applied to every table created by benchmarks.
+ */
+public class CassandraSchemaProfile {
+    /** Profile name. */
+    private final String name;
+
+    /** Compaction strategy class. */
+    private String compaction;
+
+    /** SSTable compressor class. */
+    private String compression;
+
+    /** SSTable compression chunk length in KB. */
+    private int compressionChunkKb;
+
+    /** Key cache setting. */
+    private String keysCaching;
+
+    /** Row cache setting. */
+    private String rowsPerPartitionCaching;
+
+    /** Bloom filter false positive chance. */
+    private double bloomFilterFpChance;
+
+    /** Durable writes. */
+    private boolean durableWrites;
+
+    /**
+     * @param name Profile name.
+     */
+    private CassandraSchemaProfile(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Creates profile by name and applies overrides given in arguments.
+     * <p>
+     * Supported profiles are {@code default} (server defaults, durable writes disabled), {@code stcs},
+     * {@code lcs} and {@code twcs}. Named profiles enable durable writes.
+     *
+     * @param args Arguments.
+     * @return Schema profile.
+     */
+    public static CassandraSchemaProfile create(CassandraBenchmarkArguments args) {
+        CassandraSchemaProfile profile = new CassandraSchemaProfile(args.schemaProfile().toLowerCase());
+
+        switch (profile.name) {
+            case "default":
+                break;
+
+            case "stcs":
+            case "lcs":
+            case "twcs":
+                profile.compaction = profile.name;
+                profile.durableWrites = true;
+
+                break;
+
+            default:
+                throw new IllegalArgumentException("Unknown schema profile: " + args.schemaProfile());
+        }
+
+        if (args.compaction() != null)
+            profile.compaction = args.compaction();
+
+        if (args.compression() != null)
+            profile.compression = args.compression();
+
+        if (args.compressionChunkKb() > 0)
+            profile.compressionChunkKb = args.compressionChunkKb();
+
+        if (args.keysCaching() != null)
+            profile.keysCaching = args.keysCaching();
+
+        if (args.rowsPerPartitionCaching() != null)
+            profile.rowsPerPartitionCaching = args.rowsPerPartitionCaching();
+
+        if (args.bloomFilterFpChance() > 0)
+            profile.bloomFilterFpChance = args.bloomFilterFpChance();
+
+        if (args.durableWrites() != null)
+            profile.durableWrites = args.durableWrites();
+
+        return profile;
+    }
+
+    /**
+     * @return Profile name.
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * @return Durable writes.
+     */
+    public boolean durableWrites() {
+        return durableWrites;
+    }
+
+    /**
+     * @return Table options clause starting with {@code WITH}, or empty string if server defaults are used.
+     */
+    public String tableOptions() {
+        StringBuilder sb = new StringBuilder();
+
+        if (compaction != null)
+            option(sb, "compaction = " + compactionOptions(compaction));
+
+        if (compression != null || compressionChunkKb > 0) {
+            option(sb, "compression = { 'sstable_compression' : '" +
+                (compression != null ? compression : "LZ4Compressor") + "'" +
+                (compressionChunkKb > 0 ? ", 'chunk_length_kb' : " + compressionChunkKb : "") + " }");
+        }
+
+        if (keysCaching != null || rowsPerPartitionCaching != null) {
+            option(sb, "caching = { 'keys' : '" + (keysCaching != null ? keysCaching : "ALL") +
+                "', 'rows_per_partition' : '" +
+                (rowsPerPartitionCaching != null ? rowsPerPartitionCaching : "NONE") + "' }");
+        }
+
+        if (bloomFilterFpChance > 0)
+            option(sb, "bloom_filter_fp_chance = " + bloomFilterFpChance);
+
+        return sb.toString();
+    }
+
+    /**
+     * @param sb Options builder.
+     * @param opt Option.
+     */
+    private static void option(StringBuilder sb, String opt) {
+        sb.append(sb.length() == 0 ? " WITH " : " AND ").append(opt);
+    }
+
+    /**
+     * @param compaction Compaction strategy short name or class name.
+     * @return Compaction options map.
+     */
+    private static String compactionOptions(String compaction) {
+        switch (compaction.toLowerCase()) {
+            case "stcs":
+                return "{ 'class' : 'SizeTieredCompactionStrategy' }";
+
+            case "lcs":
+                return "{ 'class' : 'LeveledCompactionStrategy' }";
+
+            case "twcs":
+                return "{ 'class' : 'TimeWindowCompactionStrategy', " +
+                    "'compaction_window_unit' : 'HOURS', 'compaction_window_size' : 1 }";
+
+            default:
+                return "{ 'class' : '" + compaction + "' }";
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return "SchemaProfile [name=" + name +
+            ", durableWrites=" + durableWrites +
+            ", tableOptions=" + tableOptions() +
+            ']';
+    }
+}
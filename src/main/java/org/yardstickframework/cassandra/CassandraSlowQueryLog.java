@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.yardstickframework.cassandra;
+
+import com.datastax.driver.core.*;
+import org.yardstickframework.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+import static org.yardstickframework.BenchmarkUtils.*;
+
+/**
+ * Slow query log. A sample of requests is executed with tracing enabled, traces of sampled requests that
+ * exceeded latency threshold are fetched in background and printed together with coordinator and statement.
+ */
+public class CassandraSlowQueryLog {
+    /** Maximum number of traces fetched during a run. */
+    private static final int MAX_TRACES = 100;
+
+    /** Configuration. */
+    private final BenchmarkConfiguration cfg;
+
+    /** Threshold in nanoseconds. */
+    private final long thresholdNanos;
+
+    /** Sample rate. */
+    private final double sampleRate;
+
+    /** Number of slow sampled requests. */
+    private final AtomicInteger slowCnt = new AtomicInteger();
+
+    /** Trace fetcher, trace retrieval blocks and must not run in benchmark threads. */
+    private final ExecutorService exec = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "slow-query-log");
+
+            t.setDaemon(true);
+
+            return t;
+        }
+    });
+
+    /**
+     * @param cfg Configuration.
+     * @param thresholdMs Latency threshold in milliseconds.
+     * @param sampleRate Fraction of requests executed with tracing.
+     */
+    public CassandraSlowQueryLog(BenchmarkConfiguration cfg, long thresholdMs, double sampleRate) {
+        this.cfg = cfg;
+        this.sampleRate = sampleRate;
+
+        thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+    }
+
+    /**
+     * @return {@code True} if next request should be traced.
+     */
+    public boolean sample() {
+        return ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    /**
+     * Handles completed traced request.
+     *
+     * @param st Statement.
+     * @param info Execution info.
+     * @param latencyNanos Request latency.
+     */
+    public void onTraced(Statement st, final ExecutionInfo info, final long latencyNanos) {
+        if (latencyNanos < thresholdNanos)
+            return;
+
+        if (slowCnt.incrementAndGet() > MAX_TRACES)
+            return;
+
+        final String query = queryString(st);
+
+        exec.submit(new Runnable() {
+            @Override public void run() {
+                try {
+                    QueryTrace trace = info.getQueryTrace();
+
+                    StringBuilder sb = new StringBuilder("Slow query [latency=")
+                        .append(TimeUnit.NANOSECONDS.toMicros(latencyNanos)).append("us")
+                        .append(", host=").append(info.getQueriedHost())
+                        .append(", query=").append(query);
+
+                    if (trace != null) {
+                        sb.append(", traceId=").append(trace.getTraceId())
+                            .append(", coordinator=").append(trace.getCoordinator())
+                            .append(", duration=").append(trace.getDurationMicros()).append("us");
+
+                        for (QueryTrace.Event evt : trace.getEvents())
+                            sb.append(System.lineSeparator()).append("    ").append(evt.getSourceElapsedMicros()).append("us ")
+                                .append(evt.getSource()).append(' ').append(evt.getDescription());
+                    }
+
+                    println(cfg, sb.append(']').toString());
+                }
+                catch (Exception e) {
+                    println(cfg, "Failed to fetch query trace: " + e.getMessage());
+                }
+            }
+        });
+    }
+
+    /**
+     * Stops trace fetching.
+     */
+    public void close() {
+        exec.shutdown();
+
+        try {
+            exec.awaitTermination(30, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException ignore) {
+            Thread.currentThread().interrupt();
+        }
+
+        println(cfg, "Slow sampled queries: " + slowCnt.get() + " (traces printed: " +
+            Math.min(slowCnt.get(), MAX_TRACES) + ')');
+    }
+
+    /**
+     * @param st Statement.
+     * @return Query string.
+     */
+    private static String queryString(Statement st) {
+        if (st instanceof BoundStatement)
+            return ((BoundStatement)st).preparedStatement().getQueryString();
+
+        if (st instanceof RegularStatement)
+            return ((RegularStatement)st).getQueryString();
+
+        if (st instanceof BatchStatement)
+            return "BATCH";
+
+        return st.getClass().getSimpleName();
+    }
+}
@@ -21,11 +21,20 @@ import com.datastax.driver.core.*;
 import org.yardstickframework.*;
 import org.yardstickframework.cassandra.*;
 import org.yardstickframework.cassandra.model.*;
+import org.yardstickframework.cassandra.util.*;
 
 import java.util.*;
+import java.util.concurrent.*;
+
+import static org.yardstickframework.BenchmarkUtils.*;
 
 /**
- * Abstract cache benchmark.
+ * Abstract cache benchmark. With {@code -co} concurrent reads of the same key are coalesced into a single
+ * Cassandra read.
+ * <p>
+ * Coalescing cannot be combined with write verification ({@code -vf}): a read issued after a write was
+ * acknowledged could join a read started before it and report a false miss. Verification also picks keys
+ * uniformly and ignores {@code -kd}, so it would have few hot keys to coalesce anyway.
  */
 public abstract class CassandraCacheAbstractBenchmark extends CassandraAbstractBenchmark {
     /** Put prepared statement. */
@@ -34,34 +43,79 @@ public abstract class CassandraCacheAbstractBenchmark extends CassandraAbstractB
     /** Get prepared statement. */
     private PreparedStatement getPs;
 
+    /** Read coalescing, {@code null} if disabled. */
+    private CassandraSingleFlight<Integer, SampleValue> coalescer;
+
     /** {@inheritDoc} */
     @Override public void setUp(BenchmarkConfiguration cfg) throws Exception {
         super.setUp(cfg);
 
         session.execute("CREATE TABLE SampleValue (" +
             "  keyValue int PRIMARY KEY" +
-            ");");
+            ")" + schema.tableOptions() + ";");
 
         putPs = session.prepare("INSERT INTO SampleValue (keyValue) VALUES (?)")
-            .setConsistencyLevel(ConsistencyLevel.ALL);
+            .setConsistencyLevel(args.writeConsistency());
 
         getPs = session.prepare("SELECT * FROM SampleValue WHERE keyValue = ?")
-            .setConsistencyLevel(ConsistencyLevel.ONE);
+            .setConsistencyLevel(args.readConsistency());
+
+        if (args.coalesceReads()) {
+            if (args.verify())
+                throw new IllegalArgumentException("Read coalescing (-co) cannot be used with " +
+                    "write verification (-vf).");
+
+            coalescer = new CassandraSingleFlight<>();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public void tearDown() throws Exception {
+        if (coalescer != null)
+            println(cfg, "Read coalescing: " + coalescer);
+
+        super.tearDown();
+    }
+
+    /** {@inheritDoc} */
+    @Override protected String descriptionSuffix() {
+        String desc = "-rcl=" + args.readConsistency() + "-wcl=" + args.writeConsistency();
+
+        if (args.coalesceReads())
+            desc += "-co";
+
+        return desc;
     }
 
     /**
      * @param sampleValue Sample value.
      */
     protected void insert(SampleValue sampleValue) {
-        session.execute(putPs.bind(sampleValue.getId()));
+        execute(putPs.bind(sampleValue.getId()));
+    }
+
+    /**
+     * @param key Key.
+     * @return Sample value.
+     * @throws Exception If failed.
+     */
+    protected SampleValue select(final int key) throws Exception {
+        if (coalescer == null)
+            return select0(key);
+
+        return coalescer.get(key, new Callable<SampleValue>() {
+            @Override public SampleValue call() throws Exception {
+                return select0(key);
+            }
+        });
     }
 
     /**
      * @param key Key.
      * @return Sample value.
      */
-    protected SampleValue select(int key) {
-        ResultSet result = session.execute(getPs.bind(key));
+    private SampleValue select0(int key) {
+        ResultSet result = execute(getPs.bind(key));
 
         List<Row> rows = result.all();
 
@@ -0,0 +1,294 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.yardstickframework.cassandra.cache;
+
+import com.datastax.driver.core.*;
+import com.google.common.util.concurrent.*;
+import org.yardstickframework.*;
+import org.yardstickframework.cassandra.model.*;
+import org.yardstickframework.cassandra.util.*;
+
+import java.nio.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+import static org.yardstickframework.BenchmarkUtils.*;
+
+/**
+ * Benchmark that fetches {@code -mgs} keys per operation. Supported modes:
+ * <ul>
+ *     <li>{@code in} - single {@code SELECT ... WHERE keyValue IN ?} query;</li>
+ *     <li>{@code async} - parallel asynchronous point reads, at most {@code -mgc} in flight;</li>
+ *     <li>{@code token_aware} - keys are grouped by primary replica and each group is fetched with
+ *     an {@code IN} query routed to that replica, at most {@code -mgc} groups in flight.</li>
+ * </ul>
+ * Number of requests and keys served by each coordinator is printed on tear down.
+ */
+public class CassandraMultiGetBenchmark extends CassandraCacheAbstractBenchmark {
+    /** Number of threads that populate the table. */
+    private static final int POPULATE_THREAD_NUM = Runtime.getRuntime().availableProcessors() * 2;
+
+    /** Multi-get query. */
+    private static final String IN_QRY = "SELECT keyValue FROM SampleValue WHERE keyValue IN ?";
+
+    /** Mode. */
+    private String mode;
+
+    /** Point read prepared statement. */
+    private PreparedStatement getPs;
+
+    /** Multi-get prepared statement. */
+    private PreparedStatement multiGetPs;
+
+    /** Requests per coordinator. */
+    private final ConcurrentMap<Host, AtomicLong> coordReqs = new ConcurrentHashMap<>();
+
+    /** Keys per coordinator. */
+    private final ConcurrentMap<Host, AtomicLong> coordKeys = new ConcurrentHashMap<>();
+
+    /** {@inheritDoc} */
+    @Override public void setUp(BenchmarkConfiguration cfg) throws Exception {
+        super.setUp(cfg);
+
+        mode = args.multiGetMode().toLowerCase();
+
+        switch (mode) {
+            case "in":
+            case "async":
+            case "token_aware":
+                break;
+
+            default:
+                throw new IllegalArgumentException("Unknown multi-get mode: " + args.multiGetMode());
+        }
+
+        getPs = session.prepare("SELECT keyValue FROM SampleValue WHERE keyValue = ?")
+            .setConsistencyLevel(args.readConsistency());
+
+        multiGetPs = session.prepare(IN_QRY)
+            .setConsistencyLevel(args.readConsistency());
+
+        // Grouping needs the token map, which is missing if token metadata is disabled or not yet received.
+        if ("token_aware".equals(mode) &&
+            session.getCluster().getMetadata().getReplicas(args.keySpaceName().toLowerCase(), routingKey(0)).isEmpty())
+            throw new IllegalStateException("No replicas known for keyspace, token aware mode requires token " +
+                "metadata [keyspace=" + args.keySpaceName() + ']');
+
+        println(cfg, "Populating multi-get data...");
+
+        long start = System.nanoTime();
+
+        CassandraBenchmarkUtils.runMultiThreaded(new CassandraBenchmarkRunnable() {
+            @Override public void run(int threadIdx) throws Exception {
+                for (int i = threadIdx; i < args.range() && !Thread.currentThread().isInterrupted();
+                     i += POPULATE_THREAD_NUM)
+                    insert(new SampleValue(i));
+            }
+        }, POPULATE_THREAD_NUM, "populate-multi-get");
+
+        println(cfg, "Finished populating multi-get data in " + ((System.nanoTime() - start) / 1_000_000) + "ms.");
+
+        resetStatistics();
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean test(Map<Object, Object> ctx) throws Exception {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+
+        int size = Math.min(args.multiGetSize(), args.range());
+
+        Set<Integer> keySet = new HashSet<>(size * 2);
+
+        while (keySet.size() < size)
+            keySet.add(rnd.nextInt(args.range()));
+
+        List<Integer> keys = new ArrayList<>(keySet);
+
+        int found;
+
+        switch (mode) {
+            case "in":
+                found = count(execute(multiGetPs.bind(keys)), keys.size());
+
+                break;
+
+            case "async":
+                found = multiGetAsync(keys);
+
+                break;
+
+            default:
+                found = multiGetTokenAware(keys);
+        }
+
+        if (found != keys.size())
+            throw new Exception("Invalid number of values retrieved [expected=" + keys.size() + ", found=" +
+                found + ']');
+
+        return true;
+    }
+
+    /**
+     * @param keys Keys.
+     * @return Number of found values.
+     * @throws Exception If failed.
+     */
+    private int multiGetAsync(List<Integer> keys) throws Exception {
+        Semaphore permits = new Semaphore(args.multiGetConcurrency());
+
+        List<ResultSetFuture> futs = new ArrayList<>(keys.size());
+
+        for (Integer key : keys)
+            futs.add(executeAsync(getPs.bind(key), permits));
+
+        int found = 0;
+
+        for (ResultSetFuture fut : futs)
+            found += count(fut.getUninterruptibly(), 1);
+
+        return found;
+    }
+
+    /**
+     * @param keys Keys.
+     * @return Number of found values.
+     * @throws Exception If failed.
+     */
+    private int multiGetTokenAware(List<Integer> keys) throws Exception {
+        String ks = args.keySpaceName().toLowerCase();
+
+        Metadata meta = session.getCluster().getMetadata();
+
+        Map<Host, List<Integer>> groups = new HashMap<>();
+
+        for (Integer key : keys) {
+            Set<Host> replicas = meta.getReplicas(ks, routingKey(key));
+
+            if (replicas.isEmpty())
+                throw new IllegalStateException("No replicas known for key [keyspace=" + ks + ", key=" + key + ']');
+
+            Host primary = replicas.iterator().next();
+
+            List<Integer> grp = groups.get(primary);
+
+            if (grp == null)
+                groups.put(primary, grp = new ArrayList<>());
+
+            grp.add(key);
+        }
+
+        Semaphore permits = new Semaphore(args.multiGetConcurrency());
+
+        List<ResultSetFuture> futs = new ArrayList<>(groups.size());
+        List<Integer> sizes = new ArrayList<>(groups.size());
+
+        for (List<Integer> grp : groups.values()) {
+            // Driver cannot compute routing key of IN query, token aware policy routes by the key set here.
+            futs.add(executeAsync(multiGetPs.bind(grp).setRoutingKey(routingKey(grp.get(0))), permits));
+            sizes.add(grp.size());
+        }
+
+        int found = 0;
+
+        for (int i = 0; i < futs.size(); i++)
+            found += count(futs.get(i).getUninterruptibly(), sizes.get(i));
+
+        return found;
+    }
+
+    /**
+     * Executes statement asynchronously, blocking while there are no free permits.
+     *
+     * @param st Statement.
+     * @param permits In-flight request permits.
+     * @return Future.
+     * @throws InterruptedException If interrupted.
+     */
+    private ResultSetFuture executeAsync(Statement st, final Semaphore permits) throws InterruptedException {
+        permits.acquire();
+
+        ResultSetFuture fut = executeAsync(st);
+
+        fut.addListener(new Runnable() {
+            @Override public void run() {
+                permits.release();
+            }
+        }, MoreExecutors.sameThreadExecutor());
+
+        return fut;
+    }
+
+    /**
+     * @param res Result set.
+     * @param keys Number of requested keys.
+     * @return Number of rows.
+     */
+    private int count(ResultSet res, int keys) {
+        Host coord = res.getExecutionInfo().getQueriedHost();
+
+        increment(coordReqs, coord, 1);
+        increment(coordKeys, coord, keys);
+
+        return res.all().size();
+    }
+
+    /**
+     * @param map Counters.
+     * @param host Host.
+     * @param delta Delta.
+     */
+    private static void increment(ConcurrentMap<Host, AtomicLong> map, Host host, long delta) {
+        AtomicLong cnt = map.get(host);
+
+        if (cnt == null) {
+            AtomicLong old = map.putIfAbsent(host, cnt = new AtomicLong());
+
+            if (old != null)
+                cnt = old;
+        }
+
+        cnt.addAndGet(delta);
+    }
+
+    /**
+     * @param key Key.
+     * @return Serialized partition key.
+     */
+    private static ByteBuffer routingKey(int key) {
+        ByteBuffer buf = ByteBuffer.allocate(4);
+
+        buf.putInt(0, key);
+
+        return buf;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void tearDown() throws Exception {
+        for (Map.Entry<Host, AtomicLong> e : coordReqs.entrySet())
+            println(cfg, "Coordinator load [mode=" + mode + ", host=" + e.getKey() + ", requests=" + e.getValue() +
+                ", keys=" + coordKeys.get(e.getKey()) + ']');
+
+        super.tearDown();
+    }
+
+    /** {@inheritDoc} */
+    @Override protected String descriptionSuffix() {
+        return super.descriptionSuffix() + "-mgm=" + args.multiGetMode() + "-mgs=" + args.multiGetSize();
+    }
+}
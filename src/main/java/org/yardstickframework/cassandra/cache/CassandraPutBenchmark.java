@@ -17,20 +17,70 @@
 
 package org.yardstickframework.cassandra.cache;
 
+import org.yardstickframework.*;
 import org.yardstickframework.cassandra.model.*;
+import org.yardstickframework.cassandra.util.*;
 
 import java.util.*;
 
 /**
  * Benchmark that performs put operations.
+ * <p>
+ * In ramp mode load is stepped by target rate or concurrency until p99 latency SLO or error rate
+ * is breached, see {@link CassandraRampController}.
  */
 public class CassandraPutBenchmark extends CassandraCacheAbstractBenchmark {
+    /** Ramp controller, {@code null} if ramp is disabled. */
+    private CassandraRampController ramp;
+
+    /** {@inheritDoc} */
+    @Override public void setUp(BenchmarkConfiguration cfg) throws Exception {
+        super.setUp(cfg);
+
+        String mode = args.rampMode().toLowerCase();
+
+        if (!"none".equals(mode)) {
+            ramp = new CassandraRampController(cfg, mode, args.rampStart(), args.rampStep(),
+                args.rampStepDuration(), args.p99Slo(), args.maxErrorRate());
+
+            ramp.start();
+        }
+    }
+
     /** {@inheritDoc} */
     @Override public boolean test(Map<Object, Object> ctx) throws Exception {
         int key = nextRandom(args.range());
 
-        insert(new SampleValue(key));
+        if (ramp == null) {
+            insert(new SampleValue(key));
+
+            return true;
+        }
+
+        long start = ramp.acquire();
+
+        try {
+            insert(new SampleValue(key));
+        }
+        catch (Exception e) {
+            // Failed insert must not stop the thread, error rate is a ramp stop condition.
+            ramp.release(start, true);
+
+            BenchmarkUtils.error("Failed insert: " + e.getMessage(), null);
+
+            return true;
+        }
+
+        ramp.release(start, false);
 
         return true;
     }
+
+    /** {@inheritDoc} */
+    @Override public void tearDown() throws Exception {
+        if (ramp != null)
+            ramp.stop();
+
+        super.tearDown();
+    }
 }
@@ -17,25 +17,136 @@
 
 package org.yardstickframework.cassandra.cache;
 
+import org.yardstickframework.*;
 import org.yardstickframework.cassandra.model.*;
+import org.yardstickframework.cassandra.util.*;
+import org.yardstickframework.cassandra.workload.*;
 
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+import static org.yardstickframework.BenchmarkUtils.*;
 
 /**
- * Benchmark that performs put and select operations.
+ * Benchmark that performs put and select operations. Keys are chosen by {@code -kd} key distribution.
+ * <p>
+ * In verification mode acknowledged writes are recorded in a bit set, reads are issued only for keys that
+ * were written, and reads that return nothing are counted as unexpected misses. Keys are written in order
+ * until the whole range is written and randomly after that, reads pick random keys of the already written
+ * range, so the operation mix is the same from the start of the run. A read is skipped only if a few probed
+ * keys are all still being written, skipped reads are reported on tear down. Verification mode ignores
+ * {@code -kd} and picks keys uniformly.
  */
 public class CassandraPutGetBenchmark extends CassandraCacheAbstractBenchmark {
+    /** Maximum number of random keys probed to find an acknowledged one. */
+    private static final int VERIFY_PROBES = 4;
+
+    /** Key distribution. */
+    private CassandraKeyDistribution keyDist;
+
+    /** Acknowledged keys, {@code null} if verification is disabled. */
+    private CassandraAtomicBitSet written;
+
+    /** Next key to write in order, keys below it are written or being written. */
+    private final AtomicInteger nextWriteKey = new AtomicInteger();
+
+    /** Verified reads. */
+    private final AtomicLong verifiedReads = new AtomicLong();
+
+    /** Reads of acknowledged keys that returned nothing. */
+    private final AtomicLong unexpectedMisses = new AtomicLong();
+
+    /** Reads skipped because no acknowledged key was found. */
+    private final AtomicLong skippedReads = new AtomicLong();
+
+    /** {@inheritDoc} */
+    @Override public void setUp(BenchmarkConfiguration cfg) throws Exception {
+        super.setUp(cfg);
+
+        keyDist = CassandraKeyDistribution.create(args.keyDistribution(), args.range(), args.zipfianConstant());
+
+        if (args.verify())
+            written = new CassandraAtomicBitSet(args.range());
+    }
+
     /** {@inheritDoc} */
     @Override public boolean test(Map<Object, Object> ctx) throws Exception {
-        int key = nextRandom(args.range());
+        if (written != null)
+            return testVerified();
+
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+
+        int key = keyDist.nextKey(rnd, args.range());
 
         SampleValue val = select(key);
 
         if (val != null && val.getId() == key)
+            key = keyDist.nextKey(rnd, args.range());
+
+        insert(new SampleValue(key));
+
+        return true;
+    }
+
+    /**
+     * Reads a key that is known to be written and writes a random key.
+     *
+     * @return {@code True}.
+     * @throws Exception If failed.
+     */
+    private boolean testVerified() throws Exception {
+        int key = -1;
+
+        int bound = Math.min(nextWriteKey.get(), args.range());
+
+        for (int i = 0; i < VERIFY_PROBES && key < 0 && bound > 0; i++) {
+            int probe = nextRandom(bound);
+
+            if (written.get(probe))
+                key = probe;
+        }
+
+        if (key >= 0) {
+            SampleValue val = select(key);
+
+            verifiedReads.incrementAndGet();
+
+            if (val == null || val.getId() != key)
+                unexpectedMisses.incrementAndGet();
+        }
+        else
+            skippedReads.incrementAndGet();
+
+        key = nextWriteKey.get() < args.range() ? nextWriteKey.getAndIncrement() : args.range();
+
+        if (key >= args.range())
             key = nextRandom(args.range());
 
         insert(new SampleValue(key));
 
+        written.set(key);
+
         return true;
     }
+
+    /** {@inheritDoc} */
+    @Override public void tearDown() throws Exception {
+        if (written != null) {
+            println(cfg, "Write verification [readConsistency=" + args.readConsistency() +
+                ", writeConsistency=" + args.writeConsistency() +
+                ", acknowledgedKeys=" + written.cardinality() +
+                ", verifiedReads=" + verifiedReads.get() +
+                ", unexpectedMisses=" + unexpectedMisses.get() +
+                ", skippedReads=" + skippedReads.get() + ']');
+        }
+
+        super.tearDown();
+    }
+
+    /** {@inheritDoc} */
+    @Override protected String descriptionSuffix() {
+        // Verification picks keys uniformly, key distribution does not apply.
+        return super.descriptionSuffix() + (args.verify() ? "-vf" : "-kd=" + args.keyDistribution());
+    }
 }
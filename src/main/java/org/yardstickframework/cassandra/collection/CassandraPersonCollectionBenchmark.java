@@ -0,0 +1,305 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.yardstickframework.cassandra.collection;
+
+import com.datastax.driver.core.*;
+import org.yardstickframework.*;
+import org.yardstickframework.cassandra.*;
+import org.yardstickframework.cassandra.model.*;
+import org.yardstickframework.cassandra.util.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.yardstickframework.BenchmarkUtils.*;
+
+/**
+ * Benchmark that stores {@link Person} attributes in a collection or user defined type column and performs
+ * reads, whole value writes and element level updates. Supported variants:
+ * <ul>
+ *     <li>{@code map} - {@code map<text, text>}, element update sets one entry;</li>
+ *     <li>{@code set} - {@code set<text>}, element update appends a tag;</li>
+ *     <li>{@code frozen_udt} - {@code frozen<PersonAttrs>}, element update rewrites the whole value;</li>
+ *     <li>{@code frozen_list} - {@code frozen<list<text>>}, element update rewrites the whole value.</li>
+ * </ul>
+ * Non-frozen user defined types require Cassandra 3.6 and a driver that reads 3.x schema, so they are not
+ * supported while the driver is pinned to 2.1.
+ */
+public class CassandraPersonCollectionBenchmark extends CassandraAbstractBenchmark {
+    /** Number of threads that populate the table. */
+    private static final int POPULATE_THREAD_NUM = Runtime.getRuntime().availableProcessors() * 2;
+
+    /** Number of distinct tags appended in set variant. */
+    private static final int TAGS = 10;
+
+    /** Variant. */
+    private String variant;
+
+    /** User type, {@code null} for collection variants. */
+    private UserType attrsType;
+
+    /** Whole value write prepared statement. */
+    private PreparedStatement putPs;
+
+    /** Element update prepared statement, {@code null} if variant rewrites the whole value. */
+    private PreparedStatement updatePs;
+
+    /** Get prepared statement. */
+    private PreparedStatement getPs;
+
+    /** {@inheritDoc} */
+    @Override public void setUp(BenchmarkConfiguration cfg) throws Exception {
+        super.setUp(cfg);
+
+        variant = args.collectionVariant().toLowerCase();
+
+        String colType;
+
+        switch (variant) {
+            case "map":
+                colType = "map<text, text>";
+
+                break;
+
+            case "set":
+                colType = "set<text>";
+
+                break;
+
+            case "frozen_udt":
+                colType = "frozen<PersonAttrs>";
+
+                break;
+
+            case "udt":
+                throw new IllegalArgumentException("Non-frozen UDT variant requires Cassandra 3.6+ and driver 3.x, " +
+                    "driver is pinned to 2.1.5, use frozen_udt instead.");
+
+            case "frozen_list":
+                colType = "frozen<list<text>>";
+
+                break;
+
+            default:
+                throw new IllegalArgumentException("Unknown collection variant: " + args.collectionVariant());
+        }
+
+        if ("frozen_udt".equals(variant)) {
+            session.execute("CREATE TYPE PersonAttrs (" +
+                "  firstName text," +
+                "  lastName text," +
+                "  salary double" +
+                ");");
+        }
+
+        session.execute("CREATE TABLE PersonCollection (" +
+            "  id int PRIMARY KEY," +
+            "  attrs " + colType +
+            ")" + schema.tableOptions() + ";");
+
+        putPs = session.prepare("INSERT INTO PersonCollection (id, attrs) VALUES (?, ?)")
+            .setConsistencyLevel(args.writeConsistency());
+
+        // Taken from statement metadata, keyspace metadata is not available for all server versions.
+        if ("frozen_udt".equals(variant))
+            attrsType = (UserType)putPs.getVariables().getType("attrs");
+
+        switch (variant) {
+            case "map":
+                updatePs = session.prepare("UPDATE PersonCollection SET attrs[?] = ? WHERE id = ?");
+
+                break;
+
+            case "set":
+                updatePs = session.prepare("UPDATE PersonCollection SET attrs = attrs + ? WHERE id = ?");
+
+                break;
+
+            default:
+                break;
+        }
+
+        if (updatePs != null)
+            updatePs.setConsistencyLevel(args.writeConsistency());
+
+        getPs = session.prepare("SELECT attrs FROM PersonCollection WHERE id = ?")
+            .setConsistencyLevel(args.readConsistency());
+
+        println(cfg, "Populating collection data...");
+
+        long start = System.nanoTime();
+
+        CassandraBenchmarkUtils.runMultiThreaded(new CassandraBenchmarkRunnable() {
+            @Override public void run(int threadIdx) throws Exception {
+                for (int i = threadIdx; i < args.range() && !Thread.currentThread().isInterrupted();
+                     i += POPULATE_THREAD_NUM)
+                    put(new Person(i, "firstName" + i, "lastName" + i, i * 1000));
+            }
+        }, POPULATE_THREAD_NUM, "populate-collection");
+
+        println(cfg, "Finished populating collection data in " + ((System.nanoTime() - start) / 1_000_000) + "ms.");
+
+        resetStatistics();
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean test(Map<Object, Object> ctx) throws Exception {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+
+        int id = rnd.nextInt(args.range());
+
+        double op = rnd.nextDouble();
+
+        if (op < args.readProportion()) {
+            Person p = get(id);
+
+            // Names are never updated, so they must match the ones written for the ID.
+            if (p != null && (!("firstName" + id).equals(p.getFirstName()) ||
+                !("lastName" + id).equals(p.getLastName())))
+                throw new Exception("Invalid person retrieved [id=" + id + ", person=" + p + ']');
+        }
+        else if (rnd.nextDouble() < args.collectionElementOps())
+            updateElement(id, rnd);
+        else
+            put(new Person(id, "firstName" + id, "lastName" + id, rnd.nextInt(args.range()) * 1000));
+
+        return true;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void tearDown() throws Exception {
+        println(cfg, "Disk space used [variant=" + variant + ", bytes=" + diskSpaceUsed("personcollection") + ']');
+
+        super.tearDown();
+    }
+
+    /** {@inheritDoc} */
+    @Override protected String descriptionSuffix() {
+        return "-cv=" + args.collectionVariant();
+    }
+
+    /**
+     * Writes the whole attributes value.
+     *
+     * @param p Person.
+     */
+    private void put(Person p) {
+        Object attrs;
+
+        switch (variant) {
+            case "map":
+                Map<String, String> map = new HashMap<>(4);
+
+                map.put("firstName", p.getFirstName());
+                map.put("lastName", p.getLastName());
+                map.put("salary", String.valueOf(p.getSalary()));
+
+                attrs = map;
+
+                break;
+
+            case "set":
+                attrs = new HashSet<>(Arrays.asList("firstName=" + p.getFirstName(), "lastName=" + p.getLastName(),
+                    "salary=" + p.getSalary()));
+
+                break;
+
+            case "frozen_list":
+                attrs = Arrays.asList(p.getFirstName(), p.getLastName(), String.valueOf(p.getSalary()));
+
+                break;
+
+            default:
+                attrs = attrsType.newValue()
+                    .setString("firstname", p.getFirstName())
+                    .setString("lastname", p.getLastName())
+                    .setDouble("salary", p.getSalary());
+        }
+
+        execute(putPs.bind(p.getId(), attrs));
+    }
+
+    /**
+     * Updates a single element, variants with frozen values rewrite the whole value.
+     *
+     * @param id Person ID.
+     * @param rnd Random.
+     */
+    private void updateElement(int id, ThreadLocalRandom rnd) {
+        String salary = String.valueOf(rnd.nextInt(args.range()) * 1000d);
+
+        switch (variant) {
+            case "map":
+                execute(updatePs.bind("salary", salary, id));
+
+                break;
+
+            case "set":
+                execute(updatePs.bind(Collections.singleton("tag" + rnd.nextInt(TAGS)), id));
+
+                break;
+
+            default:
+                put(new Person(id, "firstName" + id, "lastName" + id, Double.parseDouble(salary)));
+        }
+    }
+
+    /**
+     * @param id Person ID.
+     * @return Person or {@code null} if not found.
+     */
+    private Person get(int id) {
+        Row row = execute(getPs.bind(id)).one();
+
+        if (row == null || row.isNull("attrs"))
+            return null;
+
+        switch (variant) {
+            case "map":
+                Map<String, String> map = row.getMap("attrs", String.class, String.class);
+
+                return new Person(id, map.get("firstName"), map.get("lastName"), Double.parseDouble(map.get("salary")));
+
+            case "set":
+                Person p = new Person();
+
+                p.setId(id);
+
+                for (String attr : row.getSet("attrs", String.class)) {
+                    if (attr.startsWith("firstName="))
+                        p.setFirstName(attr.substring("firstName=".length()));
+                    else if (attr.startsWith("lastName="))
+                        p.setLastName(attr.substring("lastName=".length()));
+                    else if (attr.startsWith("salary="))
+                        p.setSalary(Double.parseDouble(attr.substring("salary=".length())));
+                }
+
+                return p;
+
+            case "frozen_list":
+                List<String> list = row.getList("attrs", String.class);
+
+                return new Person(id, list.get(0), list.get(1), Double.parseDouble(list.get(2)));
+
+            default:
+                UDTValue val = row.getUDTValue("attrs");
+
+                return new Person(id, val.getString("firstname"), val.getString("lastname"), val.getDouble("salary"));
+        }
+    }
+}
@@ -17,10 +17,15 @@
 
 package org.yardstickframework.cassandra.model;
 
+import java.io.*;
+
 /**
  * Organization record used for query test.
  */
-public class Organization {
+public class Organization implements Serializable {
+    /** */
+    private static final long serialVersionUID = 0L;
+
     /** Organization ID. */
     private int id;
 
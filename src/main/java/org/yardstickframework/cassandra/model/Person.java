@@ -17,10 +17,15 @@
 
 package org.yardstickframework.cassandra.model;
 
+import java.io.*;
+
 /**
  * Person record used for query test.
  */
-public class Person {
+public class Person implements Serializable {
+    /** */
+    private static final long serialVersionUID = 0L;
+
     /** Person ID. */
     private int id;
 
@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.yardstickframework.cassandra.probes;
+
+import com.datastax.driver.core.*;
+import org.yardstickframework.*;
+import org.yardstickframework.cassandra.*;
+import org.yardstickframework.cassandra.util.*;
+
+import java.util.*;
+
+import static org.yardstickframework.BenchmarkUtils.*;
+
+/**
+ * Probe that collects per-host request count, latency percentiles and in-flight requests
+ * from {@link CassandraLatencyTracker} of the driver. Columns are labeled by node address and port,
+ * hosts reached through the fault proxy are labeled by the proxied node.
+ */
+public class CassandraHostLatencyProbe implements BenchmarkProbe {
+    /** Number of columns per host. */
+    private static final int HOST_COLS = 4;
+
+    /** Driver. */
+    private CassandraAbstractBenchmark drv;
+
+    /** Hosts, fixed when probe starts. */
+    private List<Host> hosts = Collections.emptyList();
+
+    /** Previous histogram snapshots. */
+    private final Map<Host, long[]> prevSnapshots = new HashMap<>();
+
+    /** Time of previous point. */
+    private long prevTime;
+
+    /** Collected points. */
+    private Collection<BenchmarkProbePoint> collected = new ArrayList<>();
+
+    /** {@inheritDoc} */
+    @Override public void start(BenchmarkDriver drv, BenchmarkConfiguration cfg) throws Exception {
+        if (!(drv instanceof CassandraAbstractBenchmark)) {
+            println(cfg, getClass().getSimpleName() + " is disabled, driver is not a Cassandra benchmark: " +
+                drv.getClass().getSimpleName());
+
+            return;
+        }
+
+        this.drv = (CassandraAbstractBenchmark)drv;
+
+        hosts = new ArrayList<>(this.drv.session().getCluster().getMetadata().getAllHosts());
+
+        prevTime = System.currentTimeMillis();
+
+        println(cfg, getClass().getSimpleName() + " is started [hosts=" + hosts + ']');
+    }
+
+    /** {@inheritDoc} */
+    @Override public void stop() throws Exception {
+        // No-op.
+    }
+
+    /** {@inheritDoc} */
+    @Override public Collection<String> metaInfo() {
+        List<String> meta = new ArrayList<>(1 + hosts.size() * HOST_COLS);
+
+        meta.add("Time, sec");
+
+        for (Host host : hosts) {
+            String addr = String.valueOf(drv.nodeAddress(host));
+
+            meta.add(addr + " requests/sec");
+            meta.add(addr + " p50 latency, usec");
+            meta.add(addr + " p99 latency, usec");
+            meta.add(addr + " in-flight requests");
+        }
+
+        return meta;
+    }
+
+    /** {@inheritDoc} */
+    @Override public synchronized Collection<BenchmarkProbePoint> points() {
+        Collection<BenchmarkProbePoint> ret = collected;
+
+        collected = new ArrayList<>(ret.size() + 5);
+
+        return ret;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void buildPoint(long time) {
+        if (drv == null)
+            return;
+
+        double secs = Math.max(1, time - prevTime) / 1000d;
+
+        prevTime = time;
+
+        Session.State state = drv.session().getState();
+
+        double[] vals = new double[hosts.size() * HOST_COLS];
+
+        for (int i = 0; i < hosts.size(); i++) {
+            Host host = hosts.get(i);
+
+            CassandraLatencyTracker.HostStatistics stats = drv.latencyTracker().statistics(host);
+
+            int idx = i * HOST_COLS;
+
+            if (stats != null) {
+                long[] snapshot = stats.latencies().snapshot();
+
+                long[] interval = CassandraLatencyHistogram.diff(snapshot, prevSnapshots.put(host, snapshot));
+
+                vals[idx] = CassandraLatencyHistogram.count(interval) / secs;
+                vals[idx + 1] = CassandraLatencyHistogram.percentile(interval, 50);
+                vals[idx + 2] = CassandraLatencyHistogram.percentile(interval, 99);
+            }
+
+            vals[idx + 3] = state.getInFlightQueries(host);
+        }
+
+        BenchmarkProbePoint pnt = new BenchmarkProbePoint(
+            Math.round(time / 1000d),
+            vals);
+
+        synchronized (this) {
+            collected.add(pnt);
+        }
+    }
+}
@@ -0,0 +1,378 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.yardstickframework.cassandra.probes;
+
+import org.yardstickframework.*;
+
+import javax.management.*;
+import java.io.*;
+import java.lang.management.*;
+import java.lang.reflect.*;
+import java.text.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.yardstickframework.BenchmarkUtils.*;
+
+/**
+ * Probe that profiles the driver JVM during the measurement window only: profiling starts when warmup ends
+ * and stops when the probe is stopped. Java Flight Recorder is used if available, the recording is saved to
+ * the output folder. If JFR cannot be started, stacks of runnable threads are sampled instead. Threads
+ * parked in native socket polls are reported as runnable, so they are left out of samples.
+ * <p>
+ * Summary with hot methods (and allocation sites for JFR recordings parsed on JDK 11 or later) is printed
+ * and saved next to the recording.
+ */
+public class CassandraJfrProbe implements BenchmarkProbe {
+    /** Recording name. */
+    private static final String REC_NAME = "yardstick";
+
+    /** Stack sampling period in milliseconds, thread dumps pause the JVM so sampling is kept coarse. */
+    private static final long SAMPLE_PERIOD_MS = 100;
+
+    /**
+     * Prefixes of native methods that wait for I/O: epoll, poll, kqueue, select and blocking socket calls.
+     * {@code wait} matches {@code EPoll.wait} of newer JDKs, {@code Object.wait} is never runnable.
+     */
+    private static final String[] IO_WAIT_METHODS = {"epollWait", "wait", "poll0", "kevent0", "select0",
+        "socketRead0", "socketAccept", "accept0", "read0"};
+
+    /** Number of entries in summary. */
+    private static final int TOP = 20;
+
+    /** Configuration. */
+    private BenchmarkConfiguration cfg;
+
+    /** Output file prefix. */
+    private String filePrefix;
+
+    /** Timer. */
+    private ScheduledExecutorService exec;
+
+    /** Whether JFR recording is running. */
+    private volatile boolean jfr;
+
+    /** Whether stack sampling is running. */
+    private volatile boolean sampling;
+
+    /** Sampled hot methods. */
+    private final Map<String, Long> sampledMethods = new HashMap<>();
+
+    /** Collected points. */
+    private Collection<BenchmarkProbePoint> collected = new ArrayList<>();
+
+    /** {@inheritDoc} */
+    @Override public void start(BenchmarkDriver drv, BenchmarkConfiguration cfg) throws Exception {
+        this.cfg = cfg;
+
+        File dir = new File(cfg.outputFolder() != null ? cfg.outputFolder() : ".");
+
+        if (!dir.exists() && !dir.mkdirs())
+            throw new IOException("Failed to create output folder: " + dir);
+
+        filePrefix = new File(dir, "driver-profile-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()))
+            .getAbsolutePath();
+
+        exec = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "jfr-probe");
+
+                t.setDaemon(true);
+
+                return t;
+            }
+        });
+
+        exec.schedule(new Runnable() {
+            @Override public void run() {
+                startProfiling();
+            }
+        }, cfg.warmup(), TimeUnit.SECONDS);
+
+        println(cfg, getClass().getSimpleName() + " is started, profiling starts in " + cfg.warmup() + "s.");
+    }
+
+    /**
+     * Starts JFR recording or stack sampling if JFR is not available.
+     */
+    private void startProfiling() {
+        try {
+            diagnosticCommand("jfrStart", "name=" + REC_NAME, "settings=profile");
+
+            jfr = true;
+
+            println(cfg, "JFR recording started.");
+        }
+        catch (Exception e) {
+            println(cfg, "JFR is not available, falling back to stack sampling: " + e);
+
+            sampling = true;
+
+            exec.scheduleAtFixedRate(new Runnable() {
+                @Override public void run() {
+                    sample();
+                }
+            }, 0, SAMPLE_PERIOD_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Samples top frames of runnable threads.
+     */
+    private void sample() {
+        if (!sampling)
+            return;
+
+        long self = Thread.currentThread().getId();
+
+        for (ThreadInfo info : ManagementFactory.getThreadMXBean().dumpAllThreads(false, false)) {
+            if (info == null || info.getThreadId() == self || info.getThreadState() != Thread.State.RUNNABLE)
+                continue;
+
+            StackTraceElement[] stack = info.getStackTrace();
+
+            if (stack.length > 0 && !ioWait(stack[0]))
+                increment(sampledMethods, stack[0].getClassName() + '.' + stack[0].getMethodName());
+        }
+    }
+
+    /**
+     * @param frame Top stack frame.
+     * @return {@code True} if thread waits for I/O in native code.
+     */
+    private static boolean ioWait(StackTraceElement frame) {
+        if (!frame.isNativeMethod())
+            return false;
+
+        for (String mtd : IO_WAIT_METHODS) {
+            if (frame.getMethodName().startsWith(mtd))
+                return true;
+        }
+
+        return false;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void stop() throws Exception {
+        if (exec == null)
+            return;
+
+        sampling = false;
+
+        // Cancels profiling start as well if probe is stopped before warmup ends.
+        exec.shutdownNow();
+        exec.awaitTermination(10, TimeUnit.SECONDS);
+
+        StringBuilder sb = new StringBuilder();
+
+        if (jfr) {
+            jfr = false;
+
+            File rec = new File(filePrefix + ".jfr");
+
+            diagnosticCommand("jfrStop", "name=" + REC_NAME, "filename=" + rec.getAbsolutePath());
+
+            sb.append("JFR recording: ").append(rec.getAbsolutePath()).append(System.lineSeparator());
+
+            summarizeRecording(rec, sb);
+        }
+        else if (!sampledMethods.isEmpty()) {
+            sb.append("Sampled runnable threads not waiting for I/O every ").append(SAMPLE_PERIOD_MS).append("ms, " +
+                "allocation sites are not available without JFR.").append(System.lineSeparator());
+
+            top(sb, "Hot methods", sampledMethods);
+        }
+        else
+            return;
+
+        File summary = new File(filePrefix + ".txt");
+
+        try (Writer w = new FileWriter(summary)) {
+            w.write(sb.toString());
+        }
+
+        println(cfg, "Driver profile summary saved to " + summary.getAbsolutePath() + System.lineSeparator() + sb);
+    }
+
+    /**
+     * Parses recording using {@code jdk.jfr.consumer} API available since JDK 11. The API is accessed
+     * reflectively, so the probe compiles and runs on older JDKs. Events are streamed one by one, so the
+     * recording is never loaded into heap of the measured JVM as a whole.
+     *
+     * @param rec Recording.
+     * @param sb Summary builder.
+     */
+    private void summarizeRecording(File rec, StringBuilder sb) {
+        Map<String, Long> methods = new HashMap<>();
+        Map<String, Long> allocs = new HashMap<>();
+
+        try {
+            Class<?> recFileCls = Class.forName("jdk.jfr.consumer.RecordingFile");
+
+            try (Closeable recFile = (Closeable)recFileCls.getConstructor(Class.forName("java.nio.file.Path"))
+                .newInstance(rec.toPath())) {
+                Method hasMore = recFileCls.getMethod("hasMoreEvents");
+                Method read = recFileCls.getMethod("readEvent");
+
+                while ((Boolean)hasMore.invoke(recFile))
+                    countEvent(read.invoke(recFile), methods, allocs);
+            }
+        }
+        catch (ClassNotFoundException ignore) {
+            sb.append("JFR consumer API is not available, open the recording with JDK Mission Control.")
+                .append(System.lineSeparator());
+
+            return;
+        }
+        catch (Exception e) {
+            sb.append("Failed to parse recording: ").append(e).append(System.lineSeparator());
+
+            return;
+        }
+
+        top(sb, "Hot methods", methods);
+        top(sb, "Allocation sites", allocs);
+    }
+
+    /**
+     * Counts execution sample or allocation event by its top frame.
+     *
+     * @param evt Recorded event.
+     * @param methods Hot method counters.
+     * @param allocs Allocation site counters.
+     * @throws Exception If failed.
+     */
+    private static void countEvent(Object evt, Map<String, Long> methods, Map<String, Long> allocs)
+        throws Exception {
+        String type = (String)invoke(invoke(evt, "getEventType"), "getName");
+
+        boolean alloc = type.startsWith("jdk.ObjectAllocation");
+
+        if (!alloc && !"jdk.ExecutionSample".equals(type))
+            return;
+
+        Object stack = invoke(evt, "getStackTrace");
+
+        if (stack == null)
+            return;
+
+        List<?> frames = (List<?>)invoke(stack, "getFrames");
+
+        if (frames.isEmpty())
+            return;
+
+        Object mtd = invoke(frames.get(0), "getMethod");
+
+        String site = invoke(invoke(mtd, "getType"), "getName") + "." + invoke(mtd, "getName");
+
+        if (alloc) {
+            Object objCls = evt.getClass().getMethod("getClass", String.class).invoke(evt, "objectClass");
+
+            increment(allocs, invoke(objCls, "getName") + " at " + site);
+        }
+        else
+            increment(methods, site);
+    }
+
+    /**
+     * @param obj Object.
+     * @param mtd No-argument method name.
+     * @return Result.
+     * @throws Exception If failed.
+     */
+    private static Object invoke(Object obj, String mtd) throws Exception {
+        Method m = obj.getClass().getMethod(mtd);
+
+        m.setAccessible(true);
+
+        return m.invoke(obj);
+    }
+
+    /**
+     * @param cnts Counters.
+     * @param key Key.
+     */
+    private static void increment(Map<String, Long> cnts, String key) {
+        Long cnt = cnts.get(key);
+
+        cnts.put(key, cnt == null ? 1 : cnt + 1);
+    }
+
+    /**
+     * @param sb Summary builder.
+     * @param title Title.
+     * @param cnts Counters.
+     */
+    private static void top(StringBuilder sb, String title, Map<String, Long> cnts) {
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(cnts.entrySet());
+
+        Collections.sort(entries, new Comparator<Map.Entry<String, Long>>() {
+            @Override public int compare(Map.Entry<String, Long> e1, Map.Entry<String, Long> e2) {
+                return Long.compare(e2.getValue(), e1.getValue());
+            }
+        });
+
+        long total = 0;
+
+        for (Map.Entry<String, Long> e : entries)
+            total += e.getValue();
+
+        sb.append(title).append(" (").append(total).append(" samples):").append(System.lineSeparator());
+
+        for (int i = 0; i < Math.min(TOP, entries.size()); i++) {
+            Map.Entry<String, Long> e = entries.get(i);
+
+            sb.append(String.format("    %6.2f%% %s", e.getValue() * 100d / total, e.getKey()))
+                .append(System.lineSeparator());
+        }
+    }
+
+    /**
+     * Invokes diagnostic command.
+     *
+     * @param cmd Command.
+     * @param args Arguments.
+     * @throws Exception If failed.
+     */
+    private static void diagnosticCommand(String cmd, String... args) throws Exception {
+        ManagementFactory.getPlatformMBeanServer().invoke(
+            new ObjectName("com.sun.management:type=DiagnosticCommand"),
+            cmd,
+            new Object[] {args},
+            new String[] {String[].class.getName()});
+    }
+
+    /** {@inheritDoc} */
+    @Override public Collection<String> metaInfo() {
+        return Arrays.asList("Time, sec", "Profiling active");
+    }
+
+    /** {@inheritDoc} */
+    @Override public synchronized Collection<BenchmarkProbePoint> points() {
+        Collection<BenchmarkProbePoint> ret = collected;
+
+        collected = new ArrayList<>(ret.size() + 5);
+
+        return ret;
+    }
+
+    /** {@inheritDoc} */
+    @Override public synchronized void buildPoint(long time) {
+        collected.add(new BenchmarkProbePoint(Math.round(time / 1000d), new double[] {jfr || sampling ? 1 : 0}));
+    }
+}
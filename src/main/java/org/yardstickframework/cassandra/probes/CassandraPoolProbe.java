@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.yardstickframework.cassandra.probes;
+
+import com.datastax.driver.core.*;
+import org.yardstickframework.*;
+import org.yardstickframework.cassandra.*;
+import org.yardstickframework.cassandra.util.*;
+
+import java.util.*;
+
+import static org.yardstickframework.BenchmarkUtils.*;
+
+/**
+ * Probe that collects connection pool saturation metrics of the driver session: open connections,
+ * in-flight requests, in-flight requests divided by open connections and time benchmark threads spend in
+ * {@link Session#executeAsync(Statement)}. The ratio is a mean over all hosts and does not show a single
+ * saturated connection, time in {@code executeAsync} grows when the driver waits for a free connection.
+ */
+public class CassandraPoolProbe implements BenchmarkProbe {
+    /** Driver. */
+    private CassandraAbstractBenchmark drv;
+
+    /** Previous snapshot of time in {@code executeAsync}. */
+    private long[] prevSnapshot;
+
+    /** Collected points. */
+    private Collection<BenchmarkProbePoint> collected = new ArrayList<>();
+
+    /** {@inheritDoc} */
+    @Override public void start(BenchmarkDriver drv, BenchmarkConfiguration cfg) throws Exception {
+        if (!(drv instanceof CassandraAbstractBenchmark)) {
+            println(cfg, getClass().getSimpleName() + " is disabled, driver is not a Cassandra benchmark: " +
+                drv.getClass().getSimpleName());
+
+            return;
+        }
+
+        this.drv = (CassandraAbstractBenchmark)drv;
+
+        prevSnapshot = this.drv.submitTime().snapshot();
+
+        println(cfg, getClass().getSimpleName() + " is started.");
+    }
+
+    /** {@inheritDoc} */
+    @Override public void stop() throws Exception {
+        // No-op.
+    }
+
+    /** {@inheritDoc} */
+    @Override public Collection<String> metaInfo() {
+        return Arrays.asList(
+            "Time, sec",
+            "Open connections",
+            "In-flight requests",
+            "In-flight requests / open connections",
+            "Time in executeAsync p50, usec",
+            "Time in executeAsync p99, usec");
+    }
+
+    /** {@inheritDoc} */
+    @Override public synchronized Collection<BenchmarkProbePoint> points() {
+        Collection<BenchmarkProbePoint> ret = collected;
+
+        collected = new ArrayList<>(ret.size() + 5);
+
+        return ret;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void buildPoint(long time) {
+        if (drv == null)
+            return;
+
+        Session.State state = drv.session().getState();
+
+        long conns = 0;
+        long inFlight = 0;
+
+        for (Host host : state.getConnectedHosts()) {
+            conns += state.getOpenConnections(host);
+            inFlight += state.getInFlightQueries(host);
+        }
+
+        long[] snapshot = drv.submitTime().snapshot();
+
+        long[] interval = CassandraLatencyHistogram.diff(snapshot, prevSnapshot);
+
+        prevSnapshot = snapshot;
+
+        BenchmarkProbePoint pnt = new BenchmarkProbePoint(
+            Math.round(time / 1000d),
+            new double[] {
+                conns,
+                inFlight,
+                conns > 0 ? (double)inFlight / conns : 0,
+                CassandraLatencyHistogram.percentile(interval, 50),
+                CassandraLatencyHistogram.percentile(interval, 99)});
+
+        synchronized (this) {
+            collected.add(pnt);
+        }
+    }
+}
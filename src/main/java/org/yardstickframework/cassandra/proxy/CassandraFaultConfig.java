@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.yardstickframework.cassandra.proxy;
+
+import java.util.concurrent.*;
+
+/**
+ * Faults injected by {@link CassandraFaultProxy}.
+ */
+public class CassandraFaultConfig {
+    /** No faults. */
+    public static final CassandraFaultConfig NONE = new CassandraFaultConfig("fixed", 0, 0, 0);
+
+    /** Delay distribution: {@code fixed}, {@code uniform} (from zero to twice the mean) or {@code exponential}. */
+    private final String delayDist;
+
+    /** Mean delay in nanoseconds. */
+    private final long delayNanos;
+
+    /** Bandwidth cap in bytes per second per connection and direction, {@code 0} for unlimited. */
+    private final long bandwidth;
+
+    /** Connection resets per connection per second. */
+    private final double resetRate;
+
+    /**
+     * @param delayDist Delay distribution.
+     * @param delayMs Mean delay in milliseconds.
+     * @param bandwidth Bandwidth cap in bytes per second, {@code 0} for unlimited.
+     * @param resetRate Connection resets per connection per second.
+     */
+    public CassandraFaultConfig(String delayDist, double delayMs, long bandwidth, double resetRate) {
+        this.delayDist = delayDist.toLowerCase();
+        this.bandwidth = bandwidth;
+        this.resetRate = resetRate;
+
+        delayNanos = (long)(delayMs * 1_000_000);
+
+        switch (this.delayDist) {
+            case "fixed":
+            case "uniform":
+            case "exponential":
+                break;
+
+            default:
+                throw new IllegalArgumentException("Unknown delay distribution: " + delayDist);
+        }
+    }
+
+    /**
+     * @return Next delay in nanoseconds.
+     */
+    public long nextDelay() {
+        if (delayNanos == 0)
+            return 0;
+
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+
+        switch (delayDist) {
+            case "uniform":
+                return (long)(rnd.nextDouble() * 2 * delayNanos);
+
+            case "exponential":
+                return (long)(-Math.log(1 - rnd.nextDouble()) * delayNanos);
+
+            default:
+                return delayNanos;
+        }
+    }
+
+    /**
+     * @return Bandwidth cap in bytes per second, {@code 0} for unlimited.
+     */
+    public long bandwidth() {
+        return bandwidth;
+    }
+
+    /**
+     * @return Connection resets per connection per second.
+     */
+    public double resetRate() {
+        return resetRate;
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return "FaultConfig [delayDist=" + delayDist +
+            ", delay=" + TimeUnit.NANOSECONDS.toMicros(delayNanos) + "us" +
+            ", bandwidth=" + bandwidth +
+            ", resetRate=" + resetRate +
+            ']';
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.yardstickframework.cassandra.proxy;
+
+import com.datastax.driver.core.policies.*;
+
+import java.io.*;
+import java.net.*;
+import java.util.*;
+
+/**
+ * Address translater that routes driver connections to every Cassandra node through a local
+ * {@link CassandraFaultProxy}. Faults are injected only for selected hosts, other hosts are proxied
+ * without faults so that all connections have the same path.
+ */
+public class CassandraFaultProxies implements AddressTranslater, Closeable {
+    /** Faults for selected hosts. */
+    private final CassandraFaultConfig faults;
+
+    /** Selected hosts, empty means all hosts. */
+    private final Set<InetAddress> faultyHosts = new HashSet<>();
+
+    /** Proxies by target address. */
+    private final Map<InetSocketAddress, CassandraFaultProxy> proxies = new LinkedHashMap<>();
+
+    /**
+     * @param faults Faults for selected hosts.
+     * @param faultyHosts Comma separated list of selected hosts, {@code null} or empty for all hosts.
+     * @throws UnknownHostException If a host cannot be resolved.
+     */
+    public CassandraFaultProxies(CassandraFaultConfig faults, String faultyHosts) throws UnknownHostException {
+        this.faults = faults;
+
+        if (faultyHosts != null) {
+            for (String host : faultyHosts.split(",")) {
+                if (!host.trim().isEmpty())
+                    this.faultyHosts.addAll(Arrays.asList(InetAddress.getAllByName(host.trim())));
+            }
+        }
+    }
+
+    /**
+     * Gets or starts proxy for the target address.
+     *
+     * @param target Target address.
+     * @return Local address of the proxy.
+     * @throws IOException If failed to start proxy.
+     */
+    public synchronized InetSocketAddress proxy(InetSocketAddress target) throws IOException {
+        CassandraFaultProxy proxy = proxies.get(target);
+
+        if (proxy == null) {
+            boolean faulty = faultyHosts.isEmpty() || faultyHosts.contains(target.getAddress());
+
+            proxy = new CassandraFaultProxy(target, faulty ? faults : CassandraFaultConfig.NONE);
+
+            proxies.put(target, proxy);
+        }
+
+        return proxy.localAddress();
+    }
+
+    /** {@inheritDoc} */
+    @Override public InetSocketAddress translate(InetSocketAddress addr) {
+        try {
+            return proxy(addr);
+        }
+        catch (IOException e) {
+            throw new IllegalStateException("Failed to start fault proxy [target=" + addr + ']', e);
+        }
+    }
+
+    /**
+     * @param local Local address of a proxy.
+     * @return Target address of the proxy or {@code null} if there is no proxy with the local address.
+     */
+    public synchronized InetSocketAddress target(InetSocketAddress local) {
+        for (CassandraFaultProxy proxy : proxies.values()) {
+            if (proxy.localAddress().equals(local))
+                return proxy.target();
+        }
+
+        return null;
+    }
+
+    /**
+     * @return Started proxies.
+     */
+    public synchronized Collection<CassandraFaultProxy> proxies() {
+        return new ArrayList<>(proxies.values());
+    }
+
+    /** {@inheritDoc} */
+    @Override public synchronized void close() throws IOException {
+        for (CassandraFaultProxy proxy : proxies.values())
+            proxy.close();
+    }
+}
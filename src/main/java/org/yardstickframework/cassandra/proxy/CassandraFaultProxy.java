@@ -0,0 +1,553 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.yardstickframework.cassandra.proxy;
+
+import org.yardstickframework.*;
+
+import java.io.*;
+import java.net.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Single threaded NIO TCP proxy that forwards connections accepted on a local port to a target address
+ * and injects faults configured by {@link CassandraFaultConfig}: per chunk delay (ordering is preserved),
+ * bandwidth cap and connection resets. Chunks waiting to be forwarded are taken from a pool of buffers sized by
+ * powers of two, so forwarding does not allocate once the pool is warm.
+ */
+public class CassandraFaultProxy implements Closeable {
+    /** Read buffer size. */
+    private static final int BUF_SIZE = 64 * 1024;
+
+    /** Maximum number of pending bytes per direction before reads are suspended. */
+    private static final int MAX_PENDING = 4 * 1024 * 1024;
+
+    /** Maximum selector wait in milliseconds, bounds reset check period. */
+    private static final long MAX_WAIT_MS = 100;
+
+    /** Smallest chunk size, chunk sizes are powers of two up to {@link #BUF_SIZE}. */
+    private static final int MIN_CHUNK_SIZE = 512;
+
+    /** Maximum number of free chunks kept per size. */
+    private static final int MAX_FREE_CHUNKS = 64;
+
+    /** Target address. */
+    private final InetSocketAddress target;
+
+    /** Faults. */
+    private final CassandraFaultConfig faults;
+
+    /** Selector. */
+    private final Selector selector;
+
+    /** Server channel. */
+    private final ServerSocketChannel srv;
+
+    /** Active connections. */
+    private final Collection<Connection> conns = new ArrayList<>();
+
+    /** Read buffer. */
+    private final ByteBuffer readBuf = ByteBuffer.allocateDirect(BUF_SIZE);
+
+    /** Free chunks, element {@code i} holds chunks of {@code MIN_CHUNK_SIZE << i} bytes. */
+    private final List<ArrayDeque<ByteBuffer>> freeChunks = new ArrayList<>();
+
+    /** Accepted connections. */
+    private final AtomicLong accepted = new AtomicLong();
+
+    /** Injected resets. */
+    private final AtomicLong resets = new AtomicLong();
+
+    /** Forwarded bytes. */
+    private final AtomicLong forwarded = new AtomicLong();
+
+    /** Worker thread. */
+    private final Thread worker;
+
+    /** Stop flag. */
+    private volatile boolean stopped;
+
+    /**
+     * Starts proxy on an ephemeral port of the loopback interface.
+     *
+     * @param target Target address.
+     * @param faults Faults to inject.
+     * @throws IOException If failed.
+     */
+    public CassandraFaultProxy(InetSocketAddress target, CassandraFaultConfig faults) throws IOException {
+        this.target = target;
+        this.faults = faults;
+
+        for (int size = MIN_CHUNK_SIZE; size <= BUF_SIZE; size <<= 1)
+            freeChunks.add(new ArrayDeque<ByteBuffer>());
+
+        selector = Selector.open();
+
+        srv = ServerSocketChannel.open();
+
+        srv.configureBlocking(false);
+        srv.socket().bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        srv.register(selector, SelectionKey.OP_ACCEPT);
+
+        worker = new Thread(new Runnable() {
+            @Override public void run() {
+                body();
+            }
+        }, "fault-proxy-" + target);
+
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * @return Local address to connect to.
+     */
+    public InetSocketAddress localAddress() {
+        return (InetSocketAddress)srv.socket().getLocalSocketAddress();
+    }
+
+    /**
+     * @return Target address.
+     */
+    public InetSocketAddress target() {
+        return target;
+    }
+
+    /**
+     * Selector loop.
+     */
+    private void body() {
+        long lastCheck = System.nanoTime();
+
+        try {
+            while (!stopped) {
+                selector.select(nextWaitMillis());
+
+                Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+
+                while (it.hasNext()) {
+                    SelectionKey key = it.next();
+
+                    it.remove();
+
+                    if (!key.isValid())
+                        continue;
+
+                    if (key.isAcceptable()) {
+                        accept();
+
+                        continue;
+                    }
+
+                    Connection conn = (Connection)key.attachment();
+
+                    try {
+                        if (key.isConnectable() && conn.srvCh.finishConnect())
+                            conn.connected = true;
+
+                        if (key.isValid() && key.isReadable())
+                            conn.read((SocketChannel)key.channel());
+                    }
+                    catch (IOException ignore) {
+                        conn.close(false);
+                    }
+                }
+
+                long now = System.nanoTime();
+
+                double elapsedSec = (now - lastCheck) / 1e9;
+
+                lastCheck = now;
+
+                for (Iterator<Connection> connIt = conns.iterator(); connIt.hasNext(); ) {
+                    Connection conn = connIt.next();
+
+                    if (!conn.closed && faults.resetRate() > 0 &&
+                        ThreadLocalRandom.current().nextDouble() < faults.resetRate() * elapsedSec) {
+                        resets.incrementAndGet();
+
+                        conn.close(true);
+                    }
+
+                    if (!conn.closed) {
+                        try {
+                            conn.flush(now);
+                        }
+                        catch (IOException ignore) {
+                            conn.close(false);
+                        }
+                    }
+
+                    if (conn.closed)
+                        connIt.remove();
+                }
+            }
+        }
+        catch (IOException e) {
+            if (!stopped)
+                BenchmarkUtils.error("Fault proxy stopped [target=" + target + ']', e);
+        }
+    }
+
+    /**
+     * @return Selector wait time in milliseconds.
+     */
+    private long nextWaitMillis() {
+        long now = System.nanoTime();
+
+        long wait = TimeUnit.MILLISECONDS.toNanos(MAX_WAIT_MS);
+
+        for (Connection conn : conns) {
+            wait = Math.min(wait, conn.toSrv.waitNanos(now));
+            wait = Math.min(wait, conn.toClient.waitNanos(now));
+        }
+
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(wait));
+    }
+
+    /**
+     * @param size Required size.
+     * @return Empty chunk of at least the required size.
+     */
+    private ByteBuffer acquireChunk(int size) {
+        int idx = sizeIndex(size);
+
+        ByteBuffer chunk = freeChunks.get(idx).poll();
+
+        return chunk != null ? chunk : ByteBuffer.allocate(MIN_CHUNK_SIZE << idx);
+    }
+
+    /**
+     * @param chunk Chunk that is no longer used.
+     */
+    private void releaseChunk(ByteBuffer chunk) {
+        ArrayDeque<ByteBuffer> free = freeChunks.get(sizeIndex(chunk.capacity()));
+
+        if (free.size() < MAX_FREE_CHUNKS) {
+            chunk.clear();
+
+            free.push(chunk);
+        }
+    }
+
+    /**
+     * @param size Size.
+     * @return Index of the smallest chunk size that fits the size.
+     */
+    private static int sizeIndex(int size) {
+        int idx = 0;
+
+        while ((MIN_CHUNK_SIZE << idx) < size)
+            idx++;
+
+        return idx;
+    }
+
+    /**
+     * @throws IOException If failed.
+     */
+    private void accept() throws IOException {
+        SocketChannel clientCh = srv.accept();
+
+        if (clientCh == null)
+            return;
+
+        accepted.incrementAndGet();
+
+        SocketChannel srvCh = SocketChannel.open();
+
+        clientCh.configureBlocking(false);
+        srvCh.configureBlocking(false);
+
+        clientCh.socket().setTcpNoDelay(true);
+        srvCh.socket().setTcpNoDelay(true);
+
+        Connection conn = new Connection(clientCh, srvCh);
+
+        conn.connected = srvCh.connect(target);
+
+        conn.clientKey = clientCh.register(selector, SelectionKey.OP_READ, conn);
+        conn.srvKey = srvCh.register(selector, conn.connected ? SelectionKey.OP_READ : SelectionKey.OP_CONNECT, conn);
+
+        conns.add(conn);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void close() throws IOException {
+        stopped = true;
+
+        selector.wakeup();
+
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        catch (InterruptedException ignore) {
+            Thread.currentThread().interrupt();
+        }
+
+        for (Connection conn : conns)
+            conn.close(false);
+
+        srv.close();
+        selector.close();
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return "FaultProxy [target=" + target +
+            ", local=" + localAddress() +
+            ", faults=" + faults +
+            ", accepted=" + accepted.get() +
+            ", resets=" + resets.get() +
+            ", forwardedBytes=" + forwarded.get() +
+            ']';
+    }
+
+    /**
+     * Proxied connection.
+     */
+    private class Connection {
+        /** Client channel. */
+        private final SocketChannel clientCh;
+
+        /** Server channel. */
+        private final SocketChannel srvCh;
+
+        /** Client to server direction. */
+        private final Direction toSrv = new Direction();
+
+        /** Server to client direction. */
+        private final Direction toClient = new Direction();
+
+        /** Client key. */
+        private SelectionKey clientKey;
+
+        /** Server key. */
+        private SelectionKey srvKey;
+
+        /** Whether server channel is connected. */
+        private boolean connected;
+
+        /** Whether connection is closed. */
+        private boolean closed;
+
+        /**
+         * @param clientCh Client channel.
+         * @param srvCh Server channel.
+         */
+        Connection(SocketChannel clientCh, SocketChannel srvCh) {
+            this.clientCh = clientCh;
+            this.srvCh = srvCh;
+        }
+
+        /**
+         * @param ch Readable channel.
+         * @throws IOException If failed.
+         */
+        void read(SocketChannel ch) throws IOException {
+            readBuf.clear();
+
+            int cnt = ch.read(readBuf);
+
+            if (cnt < 0) {
+                close(false);
+
+                return;
+            }
+
+            if (cnt == 0)
+                return;
+
+            readBuf.flip();
+
+            ByteBuffer chunk = acquireChunk(cnt);
+
+            chunk.put(readBuf).flip();
+
+            (ch == clientCh ? toSrv : toClient).enqueue(chunk, System.nanoTime());
+        }
+
+        /**
+         * Writes due chunks and updates interest operations.
+         *
+         * @param now Current time.
+         * @throws IOException If failed.
+         */
+        void flush(long now) throws IOException {
+            if (connected) {
+                toSrv.flush(srvCh, now);
+                toClient.flush(clientCh, now);
+            }
+
+            if (!clientKey.isValid() || !srvKey.isValid())
+                return;
+
+            int clientOps = (toSrv.pending < MAX_PENDING ? SelectionKey.OP_READ : 0) |
+                (toClient.blocked ? SelectionKey.OP_WRITE : 0);
+
+            int srvOps = !connected ? SelectionKey.OP_CONNECT :
+                (toClient.pending < MAX_PENDING ? SelectionKey.OP_READ : 0) |
+                (toSrv.blocked ? SelectionKey.OP_WRITE : 0);
+
+            if (clientKey.interestOps() != clientOps)
+                clientKey.interestOps(clientOps);
+
+            if (srvKey.interestOps() != srvOps)
+                srvKey.interestOps(srvOps);
+        }
+
+        /**
+         * @param reset Whether to reset the client connection instead of closing it gracefully.
+         */
+        void close(boolean reset) {
+            if (closed)
+                return;
+
+            closed = true;
+
+            try {
+                if (reset)
+                    clientCh.socket().setSoLinger(true, 0);
+
+                clientCh.close();
+            }
+            catch (IOException ignore) {
+                // No-op.
+            }
+
+            try {
+                srvCh.close();
+            }
+            catch (IOException ignore) {
+                // No-op.
+            }
+        }
+    }
+
+    /**
+     * Single direction of a proxied connection.
+     */
+    private class Direction {
+        /** Chunks waiting to be written. */
+        private final ArrayDeque<ByteBuffer> chunks = new ArrayDeque<>();
+
+        /** Release times of chunks. */
+        private final ArrayDeque<Long> releaseTimes = new ArrayDeque<>();
+
+        /** Release time of the last enqueued chunk. */
+        private long lastRelease;
+
+        /** Pending bytes. */
+        private int pending;
+
+        /** Whether the last write stopped because socket buffer of destination channel was full. */
+        private boolean blocked;
+
+        /** Bandwidth tokens in bytes. */
+        private double tokens;
+
+        /** Last token refill time. */
+        private long lastRefill = System.nanoTime();
+
+        /**
+         * @param chunk Chunk.
+         * @param now Current time.
+         */
+        void enqueue(ByteBuffer chunk, long now) {
+            long release = Math.max(lastRelease, now + faults.nextDelay());
+
+            lastRelease = release;
+
+            chunks.add(chunk);
+            releaseTimes.add(release);
+
+            pending += chunk.remaining();
+        }
+
+        /**
+         * @param ch Destination channel.
+         * @param now Current time.
+         * @throws IOException If failed.
+         */
+        void flush(SocketChannel ch, long now) throws IOException {
+            long bw = faults.bandwidth();
+
+            if (bw > 0) {
+                tokens = Math.min(bw / 10d + BUF_SIZE, tokens + (now - lastRefill) * bw / 1e9);
+
+                lastRefill = now;
+            }
+
+            blocked = false;
+
+            while (!chunks.isEmpty() && releaseTimes.peek() <= now) {
+                ByteBuffer chunk = chunks.peek();
+
+                int limit = chunk.limit();
+
+                if (bw > 0) {
+                    if (tokens < 1)
+                        return;
+
+                    chunk.limit(chunk.position() + (int)Math.min(chunk.remaining(), (long)tokens));
+                }
+
+                int allowed = chunk.remaining();
+
+                int cnt = ch.write(chunk);
+
+                chunk.limit(limit);
+
+                pending -= cnt;
+                tokens -= cnt;
+
+                forwarded.addAndGet(cnt);
+
+                // Selector reports when the channel is writable again.
+                blocked = cnt < allowed;
+
+                if (chunk.hasRemaining())
+                    return;
+
+                releaseChunk(chunks.poll());
+                releaseTimes.poll();
+            }
+        }
+
+        /**
+         * @param now Current time.
+         * @return Time until this direction can make progress, in nanoseconds.
+         */
+        long waitNanos(long now) {
+            if (chunks.isEmpty() || blocked)
+                return Long.MAX_VALUE;
+
+            long wait = Math.max(0, releaseTimes.peek() - now);
+
+            long bw = faults.bandwidth();
+
+            if (bw > 0 && tokens < 1)
+                wait = Math.max(wait, (long)((1 - tokens) * 1e9 / bw));
+
+            return wait;
+        }
+    }
+}
@@ -21,20 +21,39 @@ import com.datastax.driver.core.*;
 import org.yardstickframework.*;
 import org.yardstickframework.cassandra.*;
 import org.yardstickframework.cassandra.model.*;
+import org.yardstickframework.cassandra.util.*;
 
 import java.util.*;
 
+import static org.yardstickframework.BenchmarkUtils.*;
+
 /**
- * Abstract query benchmark.
+ * Abstract query benchmark. Salary range query is answered by one of the indexing strategies:
+ * <ul>
+ *     <li>{@code legacy} - built-in secondary index;</li>
+ *     <li>{@code sasi} - SSTable attached secondary index, requires Cassandra 3.4 or later;</li>
+ *     <li>{@code lookup} - manually maintained table partitioned by salary bucket.</li>
+ * </ul>
  */
 public abstract class CassandraQueryAbstractBenchmark extends CassandraAbstractBenchmark {
     /** Put prepared statement. */
     private PreparedStatement putPs;
 
+    /** Lookup table put prepared statement. */
+    private PreparedStatement lookupPutPs;
+
+    /** Query prepared statement. */
+    private PreparedStatement queryPs;
+
+    /** Indexing strategy. */
+    private String queryIdx;
+
     /** {@inheritDoc} */
     @Override public void setUp(BenchmarkConfiguration cfg) throws Exception {
         super.setUp(cfg);
 
+        queryIdx = args.queryIndex().toLowerCase();
+
         // Init schema.
         session.execute("CREATE TABLE Person (" +
             "  id int," +
@@ -42,21 +61,99 @@ public abstract class CassandraQueryAbstractBenchmark extends CassandraAbstractB
             "  lastName varchar," +
             "  salary double," +
             "  PRIMARY KEY (id, salary)" +
-            ");"
+            ")" + schema.tableOptions() + ";"
         );
 
-        session.execute("CREATE INDEX salary_idx " +
-            "  ON Person (salary);");
-
         putPs = session.prepare("INSERT INTO Person (id, firstName, lastName, salary) VALUES (?, ?, ?, ?)")
-            .setConsistencyLevel(ConsistencyLevel.ALL);
+            .setConsistencyLevel(args.writeConsistency());
+
+        switch (queryIdx) {
+            case "legacy":
+                session.execute("CREATE INDEX salary_idx " +
+                    "  ON Person (salary);");
+
+                break;
+
+            case "sasi":
+                String ver = session.execute("SELECT release_version FROM system.local").one()
+                    .getString("release_version");
+
+                if (!supportsSasi(ver))
+                    throw new IllegalStateException("SASI index requires Cassandra 3.4 or later [version=" + ver + ']');
+
+                session.execute("CREATE CUSTOM INDEX salary_idx " +
+                    "  ON Person (salary) USING 'org.apache.cassandra.index.sasi.SASIIndex';");
+
+                break;
+
+            case "lookup":
+                session.execute("CREATE TABLE PersonBySalary (" +
+                    "  bucket int," +
+                    "  salary double," +
+                    "  id int," +
+                    "  firstName varchar," +
+                    "  lastName varchar," +
+                    "  PRIMARY KEY (bucket, salary, id)" +
+                    ")" + schema.tableOptions() + ";"
+                );
+
+                lookupPutPs = session.prepare("INSERT INTO PersonBySalary (bucket, salary, id, firstName, lastName) " +
+                    "VALUES (?, ?, ?, ?, ?)")
+                    .setConsistencyLevel(args.writeConsistency());
+
+                break;
+
+            default:
+                throw new IllegalArgumentException("Unknown query index: " + args.queryIndex());
+        }
+
+        if (lookupPutPs != null)
+            queryPs = session.prepare("SELECT id, firstName, lastName, salary FROM PersonBySalary " +
+                "WHERE bucket = ? AND salary >= ? AND salary <= ?")
+                .setConsistencyLevel(args.readConsistency());
+        else
+            queryPs = session.prepare("SELECT id, firstName, lastName, salary FROM Person " +
+                "WHERE salary >= ? AND salary <= ? ALLOW FILTERING")
+                .setConsistencyLevel(args.readConsistency());
+    }
+
+    /** {@inheritDoc} */
+    @Override public void tearDown() throws Exception {
+        Map<String, Long> sizes = lookupPutPs != null ? diskSpaceUsed("person", "personbysalary") :
+            diskSpaceUsed("person");
+
+        long idxSize = 0;
+
+        for (Map.Entry<String, Long> e : sizes.entrySet()) {
+            if (e.getKey().startsWith("person."))
+                idxSize += e.getValue();
+        }
+
+        Long tblSize = sizes.get("person");
+        Long lookupSize = sizes.get("personbysalary");
+
+        println(cfg, "Disk space used [queryIndex=" + queryIdx +
+            ", Person=" + (tblSize != null ? tblSize + "B" : "n/a") +
+            ", secondaryIndex=" + idxSize + "B" +
+            (lookupPutPs != null ? ", PersonBySalary=" + (lookupSize != null ? lookupSize + "B" : "n/a") : "") +
+            "]. SASI index files are SSTable components and are not reported separately.");
+
+        super.tearDown();
+    }
+
+    /** {@inheritDoc} */
+    @Override protected String descriptionSuffix() {
+        return "-qi=" + args.queryIndex();
     }
 
     /**
      * @param p Person.
      */
     protected void put(Person p) {
-        session.execute(putPs.bind(p.getId(), p.getFirstName(), p.getLastName(), p.getSalary()));
+        execute(putPs.bind(p.getId(), p.getFirstName(), p.getLastName(), p.getSalary()));
+
+        if (lookupPutPs != null)
+            execute(bindLookup(p));
     }
 
     /**
@@ -65,9 +162,73 @@ public abstract class CassandraQueryAbstractBenchmark extends CassandraAbstractB
     protected void put(List<Person> persons) {
         BatchStatement batch = new BatchStatement();
 
-        for (Person p : persons)
+        for (Person p : persons) {
             batch.add(putPs.bind(p.getId(), p.getFirstName(), p.getLastName(), p.getSalary()));
 
-        session.execute(batch);
+            if (lookupPutPs != null)
+                batch.add(bindLookup(p));
+        }
+
+        execute(batch);
+    }
+
+    /**
+     * @param minSalary Min salary.
+     * @param maxSalary Max salary.
+     * @return Query results.
+     */
+    protected Collection<Person> executeQuery(double minSalary, double maxSalary) {
+        List<Person> persons = new ArrayList<>();
+
+        if (lookupPutPs != null) {
+            for (int bucket = salaryBucket(minSalary); bucket <= salaryBucket(maxSalary); bucket++) {
+                for (Row row : execute(queryPs.bind(bucket, minSalary, maxSalary)))
+                    persons.add(person(row));
+            }
+        }
+        else {
+            for (Row row : execute(queryPs.bind(minSalary, maxSalary)))
+                persons.add(person(row));
+        }
+
+        return persons;
+    }
+
+    /**
+     * @param p Person.
+     * @return Bound lookup table insert.
+     */
+    private BoundStatement bindLookup(Person p) {
+        return lookupPutPs.bind(salaryBucket(p.getSalary()), p.getSalary(), p.getId(), p.getFirstName(),
+            p.getLastName());
+    }
+
+    /**
+     * @param salary Salary.
+     * @return Lookup table bucket.
+     */
+    private int salaryBucket(double salary) {
+        return (int)Math.floor(salary / args.salaryBucketWidth());
+    }
+
+    /**
+     * @param row Row with {@code id, firstName, lastName, salary} columns.
+     * @return Person.
+     */
+    private static Person person(Row row) {
+        return new Person(row.getInt(0), row.getString(1), row.getString(2), row.getDouble(3));
+    }
+
+    /**
+     * @param ver Cassandra release version.
+     * @return {@code True} if SASI is supported.
+     */
+    private static boolean supportsSasi(String ver) {
+        String[] parts = ver.split("[.-]");
+
+        int major = Integer.parseInt(parts[0]);
+        int minor = parts.length > 1 ? Integer.parseInt(parts[1]) : 0;
+
+        return major > 3 || major == 3 && minor >= 4;
     }
 }
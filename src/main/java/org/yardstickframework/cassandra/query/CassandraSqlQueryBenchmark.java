@@ -14,7 +14,6 @@
 
 package org.yardstickframework.cassandra.query;
 
-import com.datastax.driver.core.*;
 import org.yardstickframework.*;
 import org.yardstickframework.cassandra.model.*;
 import org.yardstickframework.cassandra.util.*;
@@ -31,9 +30,6 @@ public class CassandraSqlQueryBenchmark extends CassandraQueryAbstractBenchmark
     /** Number of threads that populate the cache for query test. */
     private static final int POPULATE_QUERY_THREAD_NUM = Runtime.getRuntime().availableProcessors() * 2;
 
-    /** Prepared statement. */
-    private PreparedStatement queryPs;
-
     /** Batch size. */
     public static final int BATCH_SIZE = 1000;
 
@@ -41,9 +37,6 @@ public class CassandraSqlQueryBenchmark extends CassandraQueryAbstractBenchmark
     @Override public void setUp(final BenchmarkConfiguration cfg) throws Exception {
         super.setUp(cfg);
 
-        queryPs = session.prepare("SELECT * FROM Person WHERE salary >= ? AND salary <= ? ALLOW FILTERING")
-            .setConsistencyLevel(ConsistencyLevel.ONE);
-
         println(cfg, "Populating query data...");
 
         long start = System.nanoTime();
@@ -70,6 +63,8 @@ public class CassandraSqlQueryBenchmark extends CassandraQueryAbstractBenchmark
         }, POPULATE_QUERY_THREAD_NUM, "populate-query-person");
 
         println(cfg, "Finished populating query data in " + ((System.nanoTime() - start) / 1_000_000) + "ms.");
+
+        resetStatistics();
     }
 
     /** {@inheritDoc} */
@@ -95,22 +90,4 @@ public class CassandraSqlQueryBenchmark extends CassandraQueryAbstractBenchmark
             return true;
         }
     }
-
-    /**
-     * @param minSalary Min salary.
-     * @param maxSalary Max salary.
-     * @return Query results.
-     * @throws Exception If failed.
-     */
-    @SuppressWarnings("unchecked")
-    private Collection<Person> executeQuery(double minSalary, double maxSalary) throws Exception {
-        List<Row> rows = session.execute(queryPs.bind(minSalary, maxSalary)).all();
-
-        List<Person> persons = new ArrayList<>(rows.size());
-
-        for (Row row : rows)
-            persons.add(new Person(row.getInt(0), row.getString(2), row.getString(3), row.getDouble(1)));
-
-        return persons;
-    }
 }
@@ -14,8 +14,6 @@
 
 package org.yardstickframework.cassandra.query;
 
-import com.datastax.driver.core.*;
-import org.yardstickframework.*;
 import org.yardstickframework.cassandra.model.*;
 
 import java.util.*;
@@ -25,17 +23,6 @@ import java.util.concurrent.*;
  * Benchmark that performs put and query operations.
  */
 public class CassandraSqlQueryPutBenchmark extends CassandraQueryAbstractBenchmark {
-    /** Prepared statement. */
-    private PreparedStatement queryPs;
-
-    /** {@inheritDoc} */
-    @Override public void setUp(final BenchmarkConfiguration cfg) throws Exception {
-        super.setUp(cfg);
-
-        queryPs = session.prepare("SELECT * FROM Person WHERE salary >= ? AND salary <= ? ALLOW FILTERING")
-            .setConsistencyLevel(ConsistencyLevel.ONE);
-    }
-
     /** {@inheritDoc} */
     @Override public boolean test(Map<Object, Object> ctx) throws Exception {
         ThreadLocalRandom rnd = ThreadLocalRandom.current();
@@ -60,22 +47,4 @@ public class CassandraSqlQueryPutBenchmark extends CassandraQueryAbstractBenchma
 
         return true;
     }
-
-    /**
-     * @param minSalary Min salary.
-     * @param maxSalary Max salary.
-     * @return Query results.
-     * @throws Exception If failed.
-     */
-    @SuppressWarnings("unchecked")
-    private Collection<Person> executeQuery(double minSalary, double maxSalary) throws Exception {
-        List<Row> rows = session.execute(queryPs.bind(minSalary, maxSalary)).all();
-
-        List<Person> persons = new ArrayList<>(rows.size());
-
-        for (Row row : rows)
-            persons.add(new Person(row.getInt(0), row.getString(2), row.getString(3), row.getDouble(1)));
-
-        return persons;
-    }
 }
@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.yardstickframework.cassandra.serialization;
+
+import org.yardstickframework.cassandra.model.*;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.charset.*;
+
+/**
+ * Hand-written compact binary serializer of {@link Person} and {@link Organization}. Layout is a type byte
+ * followed by fields, integers and string lengths are written as variable length integers, strings
+ * as UTF-8, {@code null} strings take a single byte.
+ */
+public class CassandraCompactSerializer extends CassandraSerializer {
+    /** Person type. */
+    private static final byte PERSON = 1;
+
+    /** Organization type. */
+    private static final byte ORGANIZATION = 2;
+
+    /** {@inheritDoc} */
+    @Override public ByteBuffer serialize(Object obj) throws IOException {
+        if (obj instanceof Person) {
+            Person p = (Person)obj;
+
+            byte[] firstName = bytes(p.getFirstName());
+            byte[] lastName = bytes(p.getLastName());
+
+            ByteBuffer buf = ByteBuffer.allocate(1 + varIntSize(p.getId()) + stringSize(firstName) +
+                stringSize(lastName) + 8);
+
+            buf.put(PERSON);
+
+            writeVarInt(buf, p.getId());
+            writeString(buf, firstName);
+            writeString(buf, lastName);
+
+            buf.putDouble(p.getSalary());
+
+            buf.flip();
+
+            return buf;
+        }
+
+        if (obj instanceof Organization) {
+            Organization org = (Organization)obj;
+
+            byte[] name = bytes(org.getName());
+
+            ByteBuffer buf = ByteBuffer.allocate(1 + varIntSize(org.getId()) + stringSize(name));
+
+            buf.put(ORGANIZATION);
+
+            writeVarInt(buf, org.getId());
+            writeString(buf, name);
+
+            buf.flip();
+
+            return buf;
+        }
+
+        throw new IOException("Unsupported object: " + (obj == null ? null : obj.getClass().getName()));
+    }
+
+    /** {@inheritDoc} */
+    @Override public Object deserialize(ByteBuffer buf) throws IOException {
+        buf = buf.duplicate();
+
+        try {
+            byte type = buf.get();
+
+            switch (type) {
+                case PERSON:
+                    return new Person(readVarInt(buf), readString(buf), readString(buf), buf.getDouble());
+
+                case ORGANIZATION:
+                    return new Organization(readVarInt(buf), readString(buf));
+
+                default:
+                    throw new IOException("Unknown object type: " + type);
+            }
+        }
+        catch (BufferUnderflowException e) {
+            throw new IOException("Truncated object.", e);
+        }
+    }
+
+    /**
+     * @param s String.
+     * @return UTF-8 bytes or {@code null}.
+     */
+    private static byte[] bytes(String s) {
+        return s == null ? null : s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param bytes String bytes, may be {@code null}.
+     * @return Serialized string size.
+     */
+    private static int stringSize(byte[] bytes) {
+        return bytes == null ? 1 : varIntSize(bytes.length + 1) + bytes.length;
+    }
+
+    /**
+     * @param buf Buffer.
+     * @param bytes String bytes, may be {@code null}.
+     */
+    private static void writeString(ByteBuffer buf, byte[] bytes) {
+        if (bytes == null)
+            writeVarInt(buf, 0);
+        else {
+            writeVarInt(buf, bytes.length + 1);
+
+            buf.put(bytes);
+        }
+    }
+
+    /**
+     * @param buf Buffer.
+     * @return String.
+     */
+    private static String readString(ByteBuffer buf) {
+        int len = readVarInt(buf) - 1;
+
+        if (len < 0)
+            return null;
+
+        byte[] bytes = new byte[len];
+
+        buf.get(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param val Value.
+     * @return Size of value written as variable length integer.
+     */
+    private static int varIntSize(int val) {
+        int size = 1;
+
+        while ((val & ~0x7F) != 0) {
+            val >>>= 7;
+
+            size++;
+        }
+
+        return size;
+    }
+
+    /**
+     * @param buf Buffer.
+     * @param val Value.
+     */
+    private static void writeVarInt(ByteBuffer buf, int val) {
+        while ((val & ~0x7F) != 0) {
+            buf.put((byte)((val & 0x7F) | 0x80));
+
+            val >>>= 7;
+        }
+
+        buf.put((byte)val);
+    }
+
+    /**
+     * @param buf Buffer.
+     * @return Value.
+     */
+    private static int readVarInt(ByteBuffer buf) {
+        int val = 0;
+
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = buf.get();
+
+            val |= (b & 0x7F) << shift;
+
+            if ((b & 0x80) == 0)
+                return val;
+        }
+
+        throw new IllegalStateException("Malformed variable length integer.");
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return "compact";
+    }
+}
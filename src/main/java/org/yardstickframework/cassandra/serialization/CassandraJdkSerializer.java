@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.yardstickframework.cassandra.serialization;
+
+import java.io.*;
+import java.nio.*;
+
+/**
+ * Generic serializer based on JDK serialization, works for any {@link Serializable} object.
+ */
+public class CassandraJdkSerializer extends CassandraSerializer {
+    /** {@inheritDoc} */
+    @Override public ByteBuffer serialize(Object obj) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+
+        try (ObjectOutputStream oos = new ObjectOutputStream(out)) {
+            oos.writeObject(obj);
+        }
+
+        return ByteBuffer.wrap(out.toByteArray());
+    }
+
+    /** {@inheritDoc} */
+    @Override public Object deserialize(ByteBuffer buf) throws IOException {
+        byte[] bytes = new byte[buf.remaining()];
+
+        buf.duplicate().get(bytes);
+
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return ois.readObject();
+        }
+        catch (ClassNotFoundException e) {
+            throw new IOException("Failed to deserialize object.", e);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return "jdk";
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.yardstickframework.cassandra.serialization;
+
+import com.datastax.driver.core.*;
+import org.yardstickframework.*;
+import org.yardstickframework.cassandra.*;
+import org.yardstickframework.cassandra.model.*;
+import org.yardstickframework.cassandra.util.*;
+
+import java.nio.*;
+import java.nio.charset.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+import static org.yardstickframework.BenchmarkUtils.*;
+
+/**
+ * Benchmark that compares storing {@link Person} as separate columns ({@code columnar} format) with storing
+ * it as a single blob produced by {@link CassandraSerializer} ({@code compact} or {@code jdk} format).
+ * Reports client side serialization and deserialization time and bytes of bound values per write.
+ */
+public class CassandraPersonFormatBenchmark extends CassandraAbstractBenchmark {
+    /** Number of threads that populate the table. */
+    private static final int POPULATE_THREAD_NUM = Runtime.getRuntime().availableProcessors() * 2;
+
+    /** Serializer, {@code null} for columnar format. */
+    private CassandraSerializer serializer;
+
+    /** Put prepared statement. */
+    private PreparedStatement putPs;
+
+    /** Get prepared statement. */
+    private PreparedStatement getPs;
+
+    /** Writes. */
+    private final AtomicLong writes = new AtomicLong();
+
+    /** Serialization time of writes. */
+    private final AtomicLong serNanos = new AtomicLong();
+
+    /** Bytes of bound values of writes. */
+    private final AtomicLong writeBytes = new AtomicLong();
+
+    /** Reads that returned a row. */
+    private final AtomicLong reads = new AtomicLong();
+
+    /** Deserialization time of reads. */
+    private final AtomicLong deserNanos = new AtomicLong();
+
+    /** {@inheritDoc} */
+    @Override public void setUp(BenchmarkConfiguration cfg) throws Exception {
+        super.setUp(cfg);
+
+        String fmt = args.format().toLowerCase();
+
+        if ("columnar".equals(fmt)) {
+            session.execute("CREATE TABLE PersonColumnar (" +
+                "  id int PRIMARY KEY," +
+                "  firstName varchar," +
+                "  lastName varchar," +
+                "  salary double" +
+                ")" + schema.tableOptions() + ";");
+
+            putPs = session.prepare("INSERT INTO PersonColumnar (id, firstName, lastName, salary) VALUES (?, ?, ?, ?)");
+
+            getPs = session.prepare("SELECT firstName, lastName, salary FROM PersonColumnar WHERE id = ?");
+        }
+        else {
+            serializer = CassandraSerializer.create(fmt);
+
+            session.execute("CREATE TABLE PersonBlob (" +
+                "  id int PRIMARY KEY," +
+                "  data blob" +
+                ")" + schema.tableOptions() + ";");
+
+            putPs = session.prepare("INSERT INTO PersonBlob (id, data) VALUES (?, ?)");
+
+            getPs = session.prepare("SELECT data FROM PersonBlob WHERE id = ?");
+        }
+
+        putPs.setConsistencyLevel(args.writeConsistency());
+        getPs.setConsistencyLevel(args.readConsistency());
+
+        println(cfg, "Populating person data [format=" + fmt + "]...");
+
+        long start = System.nanoTime();
+
+        CassandraBenchmarkUtils.runMultiThreaded(new CassandraBenchmarkRunnable() {
+            @Override public void run(int threadIdx) throws Exception {
+                for (int i = threadIdx; i < args.range() && !Thread.currentThread().isInterrupted();
+                     i += POPULATE_THREAD_NUM)
+                    execute(bind(new Person(i, "firstName" + i, "lastName" + i, i * 1000)));
+            }
+        }, POPULATE_THREAD_NUM, "populate-person-format");
+
+        println(cfg, "Finished populating person data in " + ((System.nanoTime() - start) / 1_000_000) + "ms.");
+
+        writes.set(0);
+        serNanos.set(0);
+        writeBytes.set(0);
+
+        resetStatistics();
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean test(Map<Object, Object> ctx) throws Exception {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+
+        int id = rnd.nextInt(args.range());
+
+        if (rnd.nextDouble() < args.readProportion()) {
+            Person p = get(id);
+
+            if (p != null && p.getId() != id)
+                throw new Exception("Invalid person retrieved [id=" + id + ", person=" + p + ']');
+        }
+        else
+            execute(bind(new Person(id, "firstName" + id, "lastName" + id, rnd.nextInt(args.range()) * 1000)));
+
+        return true;
+    }
+
+    /**
+     * Serializes person and binds it to put statement.
+     *
+     * @param p Person.
+     * @return Bound statement.
+     * @throws Exception If failed.
+     */
+    private BoundStatement bind(Person p) throws Exception {
+        long start = System.nanoTime();
+
+        BoundStatement st;
+        int bytes;
+
+        if (serializer == null) {
+            st = putPs.bind(p.getId(), p.getFirstName(), p.getLastName(), p.getSalary());
+
+            bytes = 4 + utf8Length(p.getFirstName()) + utf8Length(p.getLastName()) + 8;
+        }
+        else {
+            ByteBuffer data = serializer.serialize(p);
+
+            st = putPs.bind(p.getId(), data);
+
+            bytes = 4 + data.remaining();
+        }
+
+        serNanos.addAndGet(System.nanoTime() - start);
+        writeBytes.addAndGet(bytes);
+        writes.incrementAndGet();
+
+        return st;
+    }
+
+    /**
+     * @param id Person ID.
+     * @return Person or {@code null} if not found.
+     * @throws Exception If failed.
+     */
+    private Person get(int id) throws Exception {
+        Row row = execute(getPs.bind(id)).one();
+
+        if (row == null)
+            return null;
+
+        long start = System.nanoTime();
+
+        Person p = serializer == null ?
+            new Person(id, row.getString(0), row.getString(1), row.getDouble(2)) :
+            (Person)serializer.deserialize(row.getBytes(0));
+
+        deserNanos.addAndGet(System.nanoTime() - start);
+        reads.incrementAndGet();
+
+        return p;
+    }
+
+    /**
+     * @param s String.
+     * @return Length of UTF-8 representation.
+     */
+    private static int utf8Length(String s) {
+        return s == null ? 0 : s.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void tearDown() throws Exception {
+        long w = Math.max(1, writes.get());
+        long r = Math.max(1, reads.get());
+
+        println(cfg, "Person format [format=" + args.format() +
+            ", writes=" + writes.get() +
+            ", avgSerializeNanos=" + serNanos.get() / w +
+            ", avgBytesPerWrite=" + writeBytes.get() / w +
+            ", reads=" + reads.get() +
+            ", avgDeserializeNanos=" + deserNanos.get() / r +
+            ", diskSpaceUsed=" + diskSpaceUsed(serializer == null ? "personcolumnar" : "personblob") + ']');
+
+        super.tearDown();
+    }
+
+    /** {@inheritDoc} */
+    @Override protected String descriptionSuffix() {
+        return "-fmt=" + args.format();
+    }
+}
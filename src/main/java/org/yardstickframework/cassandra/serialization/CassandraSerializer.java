@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.yardstickframework.cassandra.serialization;
+
+import java.io.*;
+import java.nio.*;
+
+/**
+ * Serializer of model objects stored in a single blob column.
+ */
+public abstract class CassandraSerializer {
+    /**
+     * @param obj Object.
+     * @return Serialized object, positioned at the beginning of data.
+     * @throws IOException If failed.
+     */
+    public abstract ByteBuffer serialize(Object obj) throws IOException;
+
+    /**
+     * @param buf Serialized object.
+     * @return Object.
+     * @throws IOException If failed.
+     */
+    public abstract Object deserialize(ByteBuffer buf) throws IOException;
+
+    /**
+     * Creates serializer by name.
+     *
+     * @param name Serializer name: {@code compact} or {@code jdk}.
+     * @return Serializer.
+     */
+    public static CassandraSerializer create(String name) {
+        switch (name.toLowerCase()) {
+            case "compact":
+                return new CassandraCompactSerializer();
+
+            case "jdk":
+                return new CassandraJdkSerializer();
+
+            default:
+                throw new IllegalArgumentException("Unknown serializer: " + name);
+        }
+    }
+}
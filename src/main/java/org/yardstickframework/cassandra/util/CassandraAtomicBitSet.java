@@ -0,0 +1,92 @@
+/*
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+
+package org.yardstickframework.cassandra.util;
+
+import java.util.concurrent.atomic.*;
+
+/**
+ * Fixed size lock-free bit set. Bits can only be set, never cleared, which keeps updates to a single CAS
+ * and makes reads a single volatile load.
+ */
+public class CassandraAtomicBitSet {
+    /** Words. */
+    private final AtomicLongArray words;
+
+    /** Number of bits. */
+    private final int size;
+
+    /**
+     * @param size Number of bits.
+     */
+    public CassandraAtomicBitSet(int size) {
+        this.size = size;
+
+        words = new AtomicLongArray((size + 63) >>> 6);
+    }
+
+    /**
+     * @return Number of bits.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param idx Bit index.
+     */
+    public void set(int idx) {
+        int wordIdx = wordIndex(idx);
+
+        long mask = 1L << idx;
+
+        while (true) {
+            long word = words.get(wordIdx);
+
+            if ((word & mask) != 0 || words.compareAndSet(wordIdx, word, word | mask))
+                return;
+        }
+    }
+
+    /**
+     * @param idx Bit index.
+     * @return {@code True} if bit is set.
+     */
+    public boolean get(int idx) {
+        return (words.get(wordIndex(idx)) & (1L << idx)) != 0;
+    }
+
+    /**
+     * @return Number of set bits.
+     */
+    public long cardinality() {
+        long cnt = 0;
+
+        for (int i = 0; i < words.length(); i++)
+            cnt += Long.bitCount(words.get(i));
+
+        return cnt;
+    }
+
+    /**
+     * @param idx Bit index.
+     * @return Index of the word holding the bit.
+     */
+    private int wordIndex(int idx) {
+        if (idx < 0 || idx >= size)
+            throw new IndexOutOfBoundsException("Bit index out of range [idx=" + idx + ", size=" + size + ']');
+
+        return idx >>> 6;
+    }
+}
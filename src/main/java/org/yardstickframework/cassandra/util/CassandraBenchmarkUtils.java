@@ -14,6 +14,10 @@
 
 package org.yardstickframework.cassandra.util;
 
+import javax.management.*;
+import javax.management.remote.*;
+import java.io.*;
+import java.net.*;
 import java.util.*;
 
 /**
@@ -66,6 +70,79 @@ public class CassandraBenchmarkUtils {
         return errors;
     }
 
+    /**
+     * Flushes tables on every host and sums their {@code LiveDiskSpaceUsed} metric over JMX. Secondary index
+     * tables are reported separately under {@code table.index} names. SASI indexes are stored as SSTable
+     * components and are not reported separately.
+     *
+     * @param hosts Hosts.
+     * @param jmxPort JMX port.
+     * @param keySpaceName Key space name, lower case for unquoted identifiers.
+     * @param tblNames Table names, lower case for unquoted identifiers.
+     * @return Live disk space used in bytes by table name, summed over all hosts.
+     * @throws IOException If failed to connect to a host.
+     * @throws JMException If failed to flush or read metrics.
+     */
+    public static Map<String, Long> liveDiskSpaceUsed(Collection<InetAddress> hosts, int jmxPort,
+        String keySpaceName, String... tblNames) throws IOException, JMException {
+        Map<String, Long> res = new TreeMap<>();
+
+        for (InetAddress host : hosts) {
+            JMXServiceURL url = new JMXServiceURL("service:jmx:rmi:///jndi/rmi://" + host.getHostAddress() + ':' +
+                jmxPort + "/jmxrmi");
+
+            try (JMXConnector connector = JMXConnectorFactory.connect(url)) {
+                MBeanServerConnection conn = connector.getMBeanServerConnection();
+
+                // Size metrics account only SSTables, so memtables are flushed first.
+                conn.invoke(new ObjectName("org.apache.cassandra.db:type=StorageService"), "forceKeyspaceFlush",
+                    new Object[] {keySpaceName, tblNames},
+                    new String[] {String.class.getName(), String[].class.getName()});
+
+                for (String tbl : tblNames) {
+                    // Metrics type is "Table" since Cassandra 3.0 and "ColumnFamily" before.
+                    Set<ObjectName> names = tableMetrics(conn, "Table", keySpaceName, tbl);
+
+                    if (names.isEmpty())
+                        names = tableMetrics(conn, "ColumnFamily", keySpaceName, tbl);
+
+                    for (ObjectName name : names) {
+                        String scope = name.getKeyProperty("scope");
+
+                        long size = ((Number)conn.getAttribute(name, "Count")).longValue();
+
+                        Long prev = res.get(scope);
+
+                        res.put(scope, prev == null ? size : prev + size);
+                    }
+                }
+            }
+        }
+
+        return res;
+    }
+
+    /**
+     * @param conn Connection.
+     * @param type Metrics type.
+     * @param keySpaceName Key space name.
+     * @param tblName Table name.
+     * @return Names of disk space metrics of the table and its index tables.
+     * @throws IOException If failed.
+     * @throws JMException If failed.
+     */
+    private static Set<ObjectName> tableMetrics(MBeanServerConnection conn, String type, String keySpaceName,
+        String tblName) throws IOException, JMException {
+        Set<ObjectName> names = new HashSet<>(conn.queryNames(new ObjectName("org.apache.cassandra.metrics:type=" +
+            type + ",keyspace=" + keySpaceName + ",scope=" + tblName + ",name=LiveDiskSpaceUsed"), null));
+
+        // Index tables are registered under "IndexTable" or "IndexColumnFamily" type with "table.index" scope.
+        names.addAll(conn.queryNames(new ObjectName("org.apache.cassandra.metrics:type=Index" + type +
+            ",keyspace=" + keySpaceName + ",scope=" + tblName + ".*,name=LiveDiskSpaceUsed"), null));
+
+        return names;
+    }
+
     /**
      */
     private CassandraBenchmarkUtils() {
@@ -0,0 +1,184 @@
+/*
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+
+package org.yardstickframework.cassandra.util;
+
+import java.util.concurrent.atomic.*;
+
+/**
+ * Lock-free latency histogram with logarithmic buckets of microsecond resolution, each power of two is
+ * split into {@value #SUB_BUCKETS} linear sub-buckets, giving relative error below 12.5%.
+ */
+public class CassandraLatencyHistogram {
+    /** Number of sub-bucket bits. */
+    private static final int SUB_BUCKET_BITS = 3;
+
+    /** Number of sub-buckets per power of two. */
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /** Values below this number of microseconds are recorded exactly. */
+    private static final int LINEAR = SUB_BUCKETS * 2;
+
+    /** Number of buckets, enough for values up to {@link Long#MAX_VALUE}. */
+    private static final int BUCKETS = LINEAR + (64 - SUB_BUCKET_BITS - 1) * SUB_BUCKETS;
+
+    /** Counts. */
+    private final AtomicLongArray cnts = new AtomicLongArray(BUCKETS);
+
+    /** Maximum value in microseconds. */
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * @param nanos Latency in nanoseconds.
+     */
+    public void record(long nanos) {
+        long micros = nanos / 1000;
+
+        cnts.incrementAndGet(bucket(micros));
+
+        long curMax = max.get();
+
+        while (micros > curMax && !max.compareAndSet(curMax, micros))
+            curMax = max.get();
+    }
+
+    /**
+     * Clears recorded values. Values recorded concurrently may be partially lost.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++)
+            cnts.set(i, 0);
+
+        max.set(0);
+    }
+
+    /**
+     * @return Copy of bucket counts.
+     */
+    public long[] snapshot() {
+        long[] res = new long[BUCKETS];
+
+        for (int i = 0; i < BUCKETS; i++)
+            res[i] = cnts.get(i);
+
+        return res;
+    }
+
+    /**
+     * @return Maximum recorded value in microseconds.
+     */
+    public long max() {
+        return max.get();
+    }
+
+    /**
+     * @return Total number of recorded values.
+     */
+    public long count() {
+        return count(snapshot());
+    }
+
+    /**
+     * @param pct Percentile, from {@code 0} to {@code 100}.
+     * @return Percentile in microseconds.
+     */
+    public long percentile(double pct) {
+        return percentile(snapshot(), pct);
+    }
+
+    /**
+     * @param cnts Bucket counts.
+     * @return Total number of values.
+     */
+    public static long count(long[] cnts) {
+        long cnt = 0;
+
+        for (long c : cnts)
+            cnt += c;
+
+        return cnt;
+    }
+
+    /**
+     * @param cnts Bucket counts as returned by {@link #snapshot()} or difference of two snapshots.
+     * @param pct Percentile, from {@code 0} to {@code 100}.
+     * @return Percentile in microseconds (upper bound of the bucket), or {@code 0} if there are no values.
+     */
+    public static long percentile(long[] cnts, double pct) {
+        long total = count(cnts);
+
+        if (total == 0)
+            return 0;
+
+        long rank = Math.max(1, (long)Math.ceil(total * pct / 100));
+
+        long seen = 0;
+
+        for (int i = 0; i < cnts.length; i++) {
+            seen += cnts[i];
+
+            if (seen >= rank)
+                return upperBound(i);
+        }
+
+        return upperBound(cnts.length - 1);
+    }
+
+    /**
+     * @param cur Current snapshot.
+     * @param prev Previous snapshot, may be {@code null}.
+     * @return Bucket counts recorded between two snapshots.
+     */
+    public static long[] diff(long[] cur, long[] prev) {
+        if (prev == null)
+            return cur;
+
+        long[] res = new long[cur.length];
+
+        for (int i = 0; i < cur.length; i++)
+            res[i] = cur[i] - prev[i];
+
+        return res;
+    }
+
+    /**
+     * @param micros Value in microseconds.
+     * @return Bucket index.
+     */
+    private static int bucket(long micros) {
+        if (micros < LINEAR)
+            return (int)Math.max(0, micros);
+
+        int exp = 63 - Long.numberOfLeadingZeros(micros);
+
+        int sub = (int)(micros >>> (exp - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+
+        return LINEAR + (exp - SUB_BUCKET_BITS - 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * @param bucket Bucket index.
+     * @return Largest value in microseconds that falls into the bucket.
+     */
+    private static long upperBound(int bucket) {
+        if (bucket < LINEAR)
+            return bucket;
+
+        int exp = (bucket - LINEAR) / SUB_BUCKETS + SUB_BUCKET_BITS + 1;
+
+        long sub = (bucket - LINEAR) % SUB_BUCKETS;
+
+        return (1L << exp) + ((sub + 1) << (exp - SUB_BUCKET_BITS)) - 1;
+    }
+}
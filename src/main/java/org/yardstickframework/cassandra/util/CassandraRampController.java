@@ -0,0 +1,342 @@
+/*
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+
+package org.yardstickframework.cassandra.util;
+
+import org.yardstickframework.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+import static org.yardstickframework.BenchmarkUtils.*;
+
+/**
+ * Ramp controller that steps target rate or concurrency, holds each step for a fixed time and stops
+ * ramping when p99 latency SLO or error rate is breached. The last step within limits is the knee point,
+ * load is then held at the knee for the rest of the run.
+ * <p>
+ * In rate mode operations are scheduled at fixed intervals and latency is measured from the scheduled
+ * send time, so time an operation waits because earlier ones are late counts against the SLO. In
+ * concurrency mode load cannot exceed the number of benchmark threads, ramp ends when it reaches them.
+ */
+public class CassandraRampController {
+    /** Ramp by target rate. */
+    public static final String MODE_RATE = "rate";
+
+    /** Ramp by number of concurrently executing threads. */
+    public static final String MODE_CONCURRENCY = "concurrency";
+
+    /** Configuration. */
+    private final BenchmarkConfiguration cfg;
+
+    /** Mode. */
+    private final String mode;
+
+    /** Load increment per step. */
+    private final double step;
+
+    /** Step duration in milliseconds. */
+    private final long stepDurationMs;
+
+    /** P99 latency SLO in microseconds. */
+    private final long sloMicros;
+
+    /** Maximum error rate. */
+    private final double maxErrRate;
+
+    /** Send schedule of current rate, {@code null} in concurrency mode. */
+    private volatile Schedule schedule;
+
+    /** Concurrency limiter, {@code null} in rate mode. */
+    private final ResizableSemaphore concurrencyLimiter;
+
+    /** Statistics of current step. */
+    private volatile StepStatistics cur = new StepStatistics();
+
+    /** Current load level. */
+    private double load;
+
+    /** Completed steps. */
+    private final List<String> curve = new ArrayList<>();
+
+    /** Knee point description, {@code null} while ramping. */
+    private volatile String knee;
+
+    /** Step timer. */
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+        @Override public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "ramp-controller");
+
+            t.setDaemon(true);
+
+            return t;
+        }
+    });
+
+    /**
+     * @param cfg Configuration.
+     * @param mode Mode, {@link #MODE_RATE} or {@link #MODE_CONCURRENCY}.
+     * @param start Initial rate in operations per second or number of threads.
+     * @param step Load increment per step.
+     * @param stepDurationSec Step duration in seconds.
+     * @param sloMs P99 latency SLO in milliseconds.
+     * @param maxErrRate Maximum error rate.
+     */
+    public CassandraRampController(BenchmarkConfiguration cfg, String mode, double start, double step,
+        long stepDurationSec, double sloMs, double maxErrRate) {
+        this.cfg = cfg;
+        this.mode = mode;
+        this.step = step;
+        this.maxErrRate = maxErrRate;
+
+        load = start;
+        stepDurationMs = TimeUnit.SECONDS.toMillis(stepDurationSec);
+        sloMicros = (long)(sloMs * 1000);
+
+        if (start <= 0 || step <= 0)
+            throw new IllegalArgumentException("Ramp start and step must be positive [start=" + start +
+                ", step=" + step + ']');
+
+        switch (mode) {
+            case MODE_RATE:
+                schedule = new Schedule(start);
+                concurrencyLimiter = null;
+
+                break;
+
+            case MODE_CONCURRENCY:
+                if (start > cfg.threads() || step > cfg.threads())
+                    throw new IllegalArgumentException("Ramp start and step must not exceed number of threads " +
+                        "[start=" + start + ", step=" + step + ", threads=" + cfg.threads() + ']');
+
+                concurrencyLimiter = new ResizableSemaphore((int)start);
+
+                break;
+
+            default:
+                throw new IllegalArgumentException("Unknown ramp mode: " + mode);
+        }
+    }
+
+    /**
+     * Starts stepping once warmup is over, load is held at the initial level during warmup.
+     */
+    public void start() {
+        long warmupMs = TimeUnit.SECONDS.toMillis(cfg.warmup());
+
+        timer.schedule(new Runnable() {
+            @Override public void run() {
+                // Operations executed during warmup are not part of the first step.
+                cur = new StepStatistics();
+
+                // Backlog of warmup must not delay the first step.
+                if (schedule != null)
+                    schedule = new Schedule(load);
+
+                println(cfg, "Ramp started [mode=" + mode + ", load=" + load + ", step=" + step +
+                    ", stepDuration=" + stepDurationMs + "ms, p99Slo=" + sloMicros + "us, maxErrorRate=" +
+                    maxErrRate + ']');
+            }
+        }, warmupMs, TimeUnit.MILLISECONDS);
+
+        timer.scheduleAtFixedRate(new Runnable() {
+            @Override public void run() {
+                onStepFinished();
+            }
+        }, warmupMs + stepDurationMs, stepDurationMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Waits until operation is allowed by current load level.
+     *
+     * @return Operation start time to pass to {@link #release(long, boolean)}, scheduled send time in rate mode.
+     * @throws InterruptedException If interrupted.
+     */
+    public long acquire() throws InterruptedException {
+        Schedule sched = schedule;
+
+        if (sched == null) {
+            concurrencyLimiter.acquire();
+
+            return System.nanoTime();
+        }
+
+        long sendTime = sched.next();
+
+        long wait = sendTime - System.nanoTime();
+
+        if (wait > 0)
+            TimeUnit.NANOSECONDS.sleep(wait);
+
+        return sendTime;
+    }
+
+    /**
+     * Records finished operation.
+     *
+     * @param start Operation start time returned by {@link #acquire()}.
+     * @param err {@code True} if operation failed.
+     */
+    public void release(long start, boolean err) {
+        StepStatistics stats = cur;
+
+        stats.latencies.record(System.nanoTime() - start);
+
+        if (err)
+            stats.errs.incrementAndGet();
+
+        if (concurrencyLimiter != null)
+            concurrencyLimiter.release();
+    }
+
+    /**
+     * Evaluates finished step and moves to the next one.
+     */
+    private synchronized void onStepFinished() {
+        StepStatistics stats = cur;
+
+        cur = new StepStatistics();
+
+        long[] snapshot = stats.latencies.snapshot();
+
+        long ops = CassandraLatencyHistogram.count(snapshot);
+
+        double throughput = ops * 1000d / stepDurationMs;
+        long p99 = CassandraLatencyHistogram.percentile(snapshot, 99);
+        double errRate = ops == 0 ? 0 : stats.errs.get() / (double)ops;
+
+        String pnt = "load=" + load + ", throughput=" + Math.round(throughput) + " ops/sec, p50=" +
+            CassandraLatencyHistogram.percentile(snapshot, 50) + "us, p99=" + p99 + "us, errorRate=" + errRate;
+
+        if (knee != null) {
+            println(cfg, "Ramp holding at knee [" + pnt + ']');
+
+            return;
+        }
+
+        curve.add(pnt);
+
+        println(cfg, "Ramp step finished [" + pnt + ']');
+
+        if (p99 > sloMicros || errRate > maxErrRate) {
+            knee = curve.size() > 1 ? curve.get(curve.size() - 2) : "not found, first step breached limits";
+
+            println(cfg, "Ramp SLO breached, knee point [" + knee + ']');
+
+            setLoad(Math.max(1, load - step));
+        }
+        else if (concurrencyLimiter != null && load >= cfg.threads()) {
+            knee = "not reached, load capped at " + cfg.threads() + " threads";
+
+            println(cfg, "Ramp reached number of threads, holding load [" + pnt + ']');
+        }
+        else
+            setLoad(concurrencyLimiter != null ? Math.min(load + step, cfg.threads()) : load + step);
+    }
+
+    /**
+     * @param newLoad New load level.
+     */
+    private void setLoad(double newLoad) {
+        if (schedule != null)
+            schedule = new Schedule(newLoad);
+        else {
+            int delta = (int)newLoad - (int)load;
+
+            if (delta > 0)
+                concurrencyLimiter.release(delta);
+            else if (delta < 0)
+                concurrencyLimiter.reducePermits(-delta);
+        }
+
+        load = newLoad;
+    }
+
+    /**
+     * Stops stepping and prints throughput versus latency curve.
+     */
+    public synchronized void stop() {
+        timer.shutdownNow();
+
+        StringBuilder sb = new StringBuilder("Ramp curve [mode=").append(mode).append(']');
+
+        for (String pnt : curve)
+            sb.append(System.lineSeparator()).append("    ").append(pnt);
+
+        sb.append(System.lineSeparator()).append("Ramp knee point [")
+            .append(knee != null ? knee : "not reached, last step within limits").append(']');
+
+        println(cfg, sb.toString());
+    }
+
+    /**
+     * Statistics of a single step.
+     */
+    private static class StepStatistics {
+        /** Latencies. */
+        private final CassandraLatencyHistogram latencies = new CassandraLatencyHistogram();
+
+        /** Errors. */
+        private final AtomicLong errs = new AtomicLong();
+    }
+
+    /**
+     * Fixed rate send schedule, operation {@code n} is due at {@code start + n / rate}.
+     */
+    private static class Schedule {
+        /** Start time. */
+        private final long start = System.nanoTime();
+
+        /** Interval between operations in nanoseconds. */
+        private final double intervalNanos;
+
+        /** Operations scheduled so far. */
+        private final AtomicLong scheduled = new AtomicLong();
+
+        /**
+         * @param rate Rate in operations per second.
+         */
+        Schedule(double rate) {
+            intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        }
+
+        /**
+         * @return Send time of the next operation.
+         */
+        long next() {
+            return start + (long)(scheduled.getAndIncrement() * intervalNanos);
+        }
+    }
+
+    /**
+     * Semaphore which number of permits can be reduced.
+     */
+    private static class ResizableSemaphore extends Semaphore {
+        /** */
+        private static final long serialVersionUID = 0L;
+
+        /**
+         * @param permits Initial number of permits.
+         */
+        ResizableSemaphore(int permits) {
+            super(permits);
+        }
+
+        /** {@inheritDoc} */
+        @Override protected void reducePermits(int reduction) {
+            super.reducePermits(reduction);
+        }
+    }
+}
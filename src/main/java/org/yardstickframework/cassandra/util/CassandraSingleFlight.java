@@ -0,0 +1,112 @@
+/*
+ Licensed under the Apache License, Version 2.0 (the "License");
+ you may not use this file except in compliance with the License.
+ You may obtain a copy of the License at
+
+     http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing, software
+ distributed under the License is distributed on an "AS IS" BASIS,
+ WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ See the License for the specific language governing permissions and
+ limitations under the License.
+ */
+
+package org.yardstickframework.cassandra.util;
+
+import com.google.common.util.concurrent.*;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Single-flight request coalescing: concurrent loads of the same key share one in-flight load, the first
+ * caller performs it and the others wait for its result.
+ *
+ * @param <K> Key type.
+ * @param <V> Value type.
+ */
+public class CassandraSingleFlight<K, V> {
+    /** In-flight loads. */
+    private final ConcurrentMap<K, SettableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /** Requests. */
+    private final AtomicLong requests = new AtomicLong();
+
+    /** Performed loads. */
+    private final AtomicLong loads = new AtomicLong();
+
+    /**
+     * @param key Key.
+     * @param loader Loader, invoked only if there is no in-flight load of the key.
+     * @return Loaded value.
+     * @throws Exception If load failed.
+     */
+    public V get(K key, Callable<V> loader) throws Exception {
+        requests.incrementAndGet();
+
+        SettableFuture<V> fut = inFlight.get(key);
+
+        if (fut == null) {
+            SettableFuture<V> newFut = SettableFuture.create();
+
+            fut = inFlight.putIfAbsent(key, newFut);
+
+            if (fut == null) {
+                loads.incrementAndGet();
+
+                try {
+                    V val = loader.call();
+
+                    newFut.set(val);
+
+                    return val;
+                }
+                catch (Throwable e) {
+                    newFut.setException(e);
+
+                    throw e;
+                }
+                finally {
+                    inFlight.remove(key, newFut);
+                }
+            }
+        }
+
+        try {
+            return fut.get();
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception)
+                throw (Exception)e.getCause();
+
+            throw e;
+        }
+    }
+
+    /**
+     * @return Number of requests.
+     */
+    public long requests() {
+        return requests.get();
+    }
+
+    /**
+     * @return Number of performed loads.
+     */
+    public long loads() {
+        return loads.get();
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        long req = requests.get();
+        long ld = loads.get();
+
+        return "SingleFlight [requests=" + req +
+            ", cassandraReads=" + ld +
+            ", coalesced=" + (req - ld) +
+            ", coalescingRatio=" + (req == 0 ? 0 : (req - ld) / (double)req) +
+            ']';
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.yardstickframework.cassandra.workload;
+
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.*;
+
+/**
+ * Insert key counter that exposes only keys whose inserts were acknowledged, so reads never target records
+ * that are still being written. Same approach as YCSB {@code AcknowledgedCounterGenerator}: acknowledged
+ * keys are marked in a sliding window and the limit advances over contiguous acknowledged keys.
+ */
+public class CassandraAcknowledgedCounter {
+    /** Window size, maximum number of outstanding inserts. */
+    private static final int WINDOW = 1 << 20;
+
+    /** Window mask. */
+    private static final int MASK = WINDOW - 1;
+
+    /** Next key to insert. */
+    private final AtomicInteger next;
+
+    /** Acknowledged flags indexed by key modulo window size. */
+    private final AtomicIntegerArray window = new AtomicIntegerArray(WINDOW);
+
+    /** Lock of limit advance. */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /** All keys below the limit are acknowledged. */
+    private volatile int limit;
+
+    /**
+     * @param start First key to insert, all keys below it are considered acknowledged.
+     */
+    public CassandraAcknowledgedCounter(int start) {
+        next = new AtomicInteger(start);
+        limit = start;
+    }
+
+    /**
+     * @return Next key to insert.
+     */
+    public int next() {
+        return next.getAndIncrement();
+    }
+
+    /**
+     * Acknowledges insert of the key.
+     *
+     * @param key Key returned by {@link #next()}.
+     */
+    public void acknowledge(int key) {
+        if (key - limit >= WINDOW)
+            throw new IllegalStateException("Too many outstanding inserts [key=" + key + ", limit=" + limit + ']');
+
+        window.set(key & MASK, 1);
+
+        // Limit is advanced by one thread at a time, others rely on it to pick their keys up.
+        if (lock.tryLock()) {
+            try {
+                int lim = limit;
+
+                while (window.get(lim & MASK) == 1) {
+                    window.set(lim & MASK, 0);
+
+                    lim++;
+                }
+
+                limit = lim;
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * @return Number of keys with acknowledged inserts, all keys in range {@code [0, limit)} exist.
+     */
+    public int limit() {
+        return limit;
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.yardstickframework.cassandra.workload;
+
+import java.util.concurrent.*;
+
+/**
+ * Key distribution used by workload benchmarks.
+ */
+public abstract class CassandraKeyDistribution {
+    /**
+     * Generates next key. Implementations must be thread safe and must not allocate.
+     *
+     * @param rnd Random of the calling thread.
+     * @param max Number of keys currently present, keys are in range {@code [0, max)}.
+     * @return Next key.
+     */
+    public abstract int nextKey(ThreadLocalRandom rnd, int max);
+
+    /**
+     * Creates distribution by name.
+     *
+     * @param name Distribution name: {@code uniform}, {@code zipfian} or {@code latest}.
+     * @param range Initial key range.
+     * @param zipfianConstant Zipfian constant.
+     * @return Key distribution.
+     */
+    public static CassandraKeyDistribution create(String name, int range, double zipfianConstant) {
+        switch (name.toLowerCase()) {
+            case "uniform":
+                return new Uniform();
+
+            case "zipfian":
+                return new Zipfian(range, zipfianConstant, true);
+
+            case "latest":
+                return new Latest(new Zipfian(range, zipfianConstant, false));
+
+            default:
+                throw new IllegalArgumentException("Unknown key distribution: " + name);
+        }
+    }
+
+    /**
+     * Uniform distribution.
+     */
+    private static class Uniform extends CassandraKeyDistribution {
+        /** {@inheritDoc} */
+        @Override public int nextKey(ThreadLocalRandom rnd, int max) {
+            return rnd.nextInt(max);
+        }
+
+        /** {@inheritDoc} */
+        @Override public String toString() {
+            return "uniform";
+        }
+    }
+
+    /**
+     * Zipfian distribution as described in "Quickly Generating Billion-Record Synthetic Databases"
+     * by Gray et al. Popular items are scattered over the key range unless scrambling is disabled.
+     */
+    private static class Zipfian extends CassandraKeyDistribution {
+        /** FNV offset basis. */
+        private static final long FNV_OFFSET_BASIS_64 = 0xCBF29CE484222325L;
+
+        /** FNV prime. */
+        private static final long FNV_PRIME_64 = 1099511628211L;
+
+        /** Number of items the constants were computed for. */
+        private final int items;
+
+        /** Zipfian constant. */
+        private final double theta;
+
+        /** Precomputed constant. */
+        private final double alpha;
+
+        /** Precomputed constant. */
+        private final double eta;
+
+        /** Precomputed constant. */
+        private final double zeta2theta;
+
+        /** Zeta of items. */
+        private final double zetan;
+
+        /** Whether to scatter popular items over the key range. */
+        private final boolean scrambled;
+
+        /**
+         * @param items Number of items.
+         * @param theta Zipfian constant.
+         * @param scrambled Whether to scatter popular items over the key range.
+         */
+        Zipfian(int items, double theta, boolean scrambled) {
+            this.items = items;
+            this.theta = theta;
+            this.scrambled = scrambled;
+
+            zeta2theta = zeta(2, theta);
+            zetan = zeta(items, theta);
+            alpha = 1.0 / (1.0 - theta);
+            eta = (1 - Math.pow(2.0 / items, 1 - theta)) / (1 - zeta2theta / zetan);
+        }
+
+        /**
+         * @param n Number of items.
+         * @param theta Zipfian constant.
+         * @return Zeta value.
+         */
+        private static double zeta(long n, double theta) {
+            double sum = 0;
+
+            for (long i = 0; i < n; i++)
+                sum += 1 / Math.pow(i + 1, theta);
+
+            return sum;
+        }
+
+        /**
+         * @param rnd Random.
+         * @return Item rank, {@code 0} is the most popular one.
+         */
+        int nextRank(ThreadLocalRandom rnd) {
+            double u = rnd.nextDouble();
+
+            double uz = u * zetan;
+
+            if (uz < 1.0)
+                return 0;
+
+            if (uz < 1.0 + Math.pow(0.5, theta))
+                return 1;
+
+            return (int)(items * Math.pow(eta * u - eta + 1, alpha));
+        }
+
+        /** {@inheritDoc} */
+        @Override public int nextKey(ThreadLocalRandom rnd, int max) {
+            long rank = nextRank(rnd);
+
+            if (scrambled)
+                rank = fnvHash(rank);
+
+            return (int)(rank % max);
+        }
+
+        /**
+         * @param val Value.
+         * @return 64-bit FNV hash of the value, always non-negative.
+         */
+        private static long fnvHash(long val) {
+            long hash = FNV_OFFSET_BASIS_64;
+
+            for (int i = 0; i < 8; i++) {
+                hash ^= val & 0xFF;
+                hash *= FNV_PRIME_64;
+
+                val >>= 8;
+            }
+
+            return hash & Long.MAX_VALUE;
+        }
+
+        /** {@inheritDoc} */
+        @Override public String toString() {
+            return "zipfian";
+        }
+    }
+
+    /**
+     * Distribution favoring most recently inserted keys.
+     */
+    private static class Latest extends CassandraKeyDistribution {
+        /** Rank generator. */
+        private final Zipfian zipf;
+
+        /**
+         * @param zipf Rank generator.
+         */
+        Latest(Zipfian zipf) {
+            this.zipf = zipf;
+        }
+
+        /** {@inheritDoc} */
+        @Override public int nextKey(ThreadLocalRandom rnd, int max) {
+            int key = max - 1 - zipf.nextRank(rnd) % max;
+
+            return key < 0 ? 0 : key;
+        }
+
+        /** {@inheritDoc} */
+        @Override public String toString() {
+            return "latest";
+        }
+    }
+}
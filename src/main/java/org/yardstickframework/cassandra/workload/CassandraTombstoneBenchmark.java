@@ -0,0 +1,332 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.yardstickframework.cassandra.workload;
+
+import com.datastax.driver.core.*;
+import org.yardstickframework.*;
+import org.yardstickframework.cassandra.*;
+import org.yardstickframework.cassandra.util.*;
+
+import java.nio.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.regex.*;
+
+import static org.yardstickframework.BenchmarkUtils.*;
+
+/**
+ * Benchmark that writes into wide partitions with TTL, deletes rows and row ranges, and measures how point
+ * read and slice latency degrade as tombstones accumulate. A sample of reads is traced to get the number
+ * of tombstones scanned by replicas. Traces are fetched in background by a bounded executor, traces that do not
+ * fit its queue are dropped and counted; each fetched trace is attributed to the interval in which the fetch
+ * completes. Statistics are printed for every interval of {@code -tsi} seconds and summarized on tear down.
+ * <p>
+ * Range deletes require Cassandra 3.0 or later.
+ */
+public class CassandraTombstoneBenchmark extends CassandraAbstractBenchmark {
+    /** Number of threads that populate the table. */
+    private static final int POPULATE_THREAD_NUM = Runtime.getRuntime().availableProcessors() * 2;
+
+    /** Number of trace fetching threads. */
+    private static final int TRACE_FETCH_THREAD_NUM = 2;
+
+    /** Maximum number of traces waiting to be fetched. */
+    private static final int TRACE_FETCH_QUEUE_SIZE = 1024;
+
+    /** Pattern of trace events reporting scanned tombstones. */
+    private static final Pattern TOMBSTONES = Pattern.compile("(\\d+) tombstone");
+
+    /** Value payload. */
+    private byte[] payload;
+
+    /** Rows per partition. */
+    private int rowsPerPart;
+
+    /** Insert prepared statement. */
+    private PreparedStatement putPs;
+
+    /** Row delete prepared statement. */
+    private PreparedStatement delPs;
+
+    /** Range delete prepared statement. */
+    private PreparedStatement rangeDelPs;
+
+    /** Point read prepared statement. */
+    private PreparedStatement getPs;
+
+    /** Slice read prepared statement. */
+    private PreparedStatement slicePs;
+
+    /** Deletes issued since start. */
+    private final AtomicLong deletes = new AtomicLong();
+
+    /** Traces dropped because fetch queue was full. */
+    private final AtomicLong droppedTraces = new AtomicLong();
+
+    /** Statistics of current interval. */
+    private volatile IntervalStatistics cur = new IntervalStatistics();
+
+    /** Reports of completed intervals. */
+    private final List<String> reports = Collections.synchronizedList(new ArrayList<String>());
+
+    /** Benchmark start time. */
+    private long startTime;
+
+    /** Interval timer. */
+    private final ScheduledExecutorService exec = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+        @Override public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "tombstone-stats");
+
+            t.setDaemon(true);
+
+            return t;
+        }
+    });
+
+    /** Trace fetcher, drops traces when its queue is full. */
+    private final ExecutorService traceExec = new ThreadPoolExecutor(TRACE_FETCH_THREAD_NUM, TRACE_FETCH_THREAD_NUM,
+        0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(TRACE_FETCH_QUEUE_SIZE),
+        new ThreadFactory() {
+            @Override public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "tombstone-trace-fetcher");
+
+                t.setDaemon(true);
+
+                return t;
+            }
+        },
+        new RejectedExecutionHandler() {
+            @Override public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+                droppedTraces.incrementAndGet();
+            }
+        });
+
+    /** {@inheritDoc} */
+    @Override public void setUp(BenchmarkConfiguration cfg) throws Exception {
+        super.setUp(cfg);
+
+        payload = new byte[args.recordSize()];
+
+        new Random().nextBytes(payload);
+
+        rowsPerPart = Math.max(1, args.range() / args.widePartitions());
+
+        session.execute("CREATE TABLE WidePartition (" +
+            "  part int," +
+            "  ck int," +
+            "  val blob," +
+            "  PRIMARY KEY (part, ck)" +
+            ")" + schema.tableOptions() + ";");
+
+        putPs = session.prepare("INSERT INTO WidePartition (part, ck, val) VALUES (?, ?, ?) USING TTL ?")
+            .setConsistencyLevel(args.writeConsistency());
+
+        delPs = session.prepare("DELETE FROM WidePartition WHERE part = ? AND ck = ?")
+            .setConsistencyLevel(args.writeConsistency());
+
+        if (args.rangeDeleteProportion() > 0)
+            rangeDelPs = session.prepare("DELETE FROM WidePartition WHERE part = ? AND ck >= ? AND ck < ?")
+                .setConsistencyLevel(args.writeConsistency());
+
+        getPs = session.prepare("SELECT val FROM WidePartition WHERE part = ? AND ck = ?")
+            .setConsistencyLevel(args.readConsistency());
+
+        slicePs = session.prepare("SELECT ck, val FROM WidePartition WHERE part = ? AND ck >= ? LIMIT ?")
+            .setConsistencyLevel(args.readConsistency());
+
+        println(cfg, "Populating wide partitions [partitions=" + args.widePartitions() +
+            ", rowsPerPartition=" + rowsPerPart + ", ttl=" + args.ttl() + "s]...");
+
+        long start = System.nanoTime();
+
+        CassandraBenchmarkUtils.runMultiThreaded(new CassandraBenchmarkRunnable() {
+            @Override public void run(int threadIdx) throws Exception {
+                for (int i = threadIdx; i < args.widePartitions() * rowsPerPart &&
+                    !Thread.currentThread().isInterrupted(); i += POPULATE_THREAD_NUM)
+                    execute(putPs.bind(i % args.widePartitions(), i / args.widePartitions(),
+                        ByteBuffer.wrap(payload), args.ttl()));
+            }
+        }, POPULATE_THREAD_NUM, "populate-wide-partitions");
+
+        println(cfg, "Finished populating wide partitions in " + ((System.nanoTime() - start) / 1_000_000) + "ms.");
+
+        resetStatistics();
+
+        startTime = System.currentTimeMillis();
+
+        exec.scheduleAtFixedRate(new Runnable() {
+            @Override public void run() {
+                onIntervalFinished();
+            }
+        }, args.tombstoneStatsInterval(), args.tombstoneStatsInterval(), TimeUnit.SECONDS);
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean test(Map<Object, Object> ctx) throws Exception {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+
+        int part = rnd.nextInt(args.widePartitions());
+        int ck = rnd.nextInt(rowsPerPart);
+
+        double op = rnd.nextDouble();
+
+        if (op < args.deleteRate()) {
+            if (rangeDelPs != null && rnd.nextDouble() < args.rangeDeleteProportion())
+                execute(rangeDelPs.bind(part, ck, ck + args.maxScanLength()));
+            else
+                execute(delPs.bind(part, ck));
+
+            deletes.incrementAndGet();
+        }
+        else if (op < args.deleteRate() + args.readProportion()) {
+            boolean slice = rnd.nextBoolean();
+
+            Statement st = slice ? slicePs.bind(part, ck, args.maxScanLength()) : getPs.bind(part, ck);
+
+            boolean traced = rnd.nextDouble() < args.tombstoneTraceRate();
+
+            if (traced)
+                st.enableTracing();
+
+            IntervalStatistics stats = cur;
+
+            long start = System.nanoTime();
+
+            ResultSet res = execute(st);
+
+            res.all();
+
+            if (traced)
+                fetchTombstones(res.getExecutionInfo());
+            else
+                (slice ? stats.sliceLatencies : stats.pointLatencies).record(System.nanoTime() - start);
+        }
+        else
+            execute(putPs.bind(part, ck, ByteBuffer.wrap(payload), args.ttl()));
+
+        return true;
+    }
+
+    /**
+     * Fetches trace in background and adds scanned tombstones to statistics of the interval in which
+     * the fetch completes.
+     *
+     * @param info Execution info of traced request.
+     */
+    private void fetchTombstones(final ExecutionInfo info) {
+        traceExec.execute(new Runnable() {
+            @Override public void run() {
+                try {
+                    QueryTrace trace = info.getQueryTrace();
+
+                    if (trace == null)
+                        return;
+
+                    long tombstones = 0;
+
+                    for (QueryTrace.Event evt : trace.getEvents()) {
+                        Matcher m = TOMBSTONES.matcher(evt.getDescription());
+
+                        if (m.find())
+                            tombstones += Long.parseLong(m.group(1));
+                    }
+
+                    IntervalStatistics stats = cur;
+
+                    stats.tracedReads.incrementAndGet();
+                    stats.tombstones.addAndGet(tombstones);
+                }
+                catch (Exception e) {
+                    println(cfg, "Failed to fetch query trace: " + e.getMessage());
+                }
+            }
+        });
+    }
+
+    /**
+     * Prints statistics of finished interval and starts a new one.
+     */
+    private void onIntervalFinished() {
+        IntervalStatistics stats = cur;
+
+        cur = new IntervalStatistics();
+
+        long traced = stats.tracedReads.get();
+
+        String report = "elapsed=" + (System.currentTimeMillis() - startTime) / 1000 + "s" +
+            ", deletes=" + deletes.get() +
+            ", pointP50=" + stats.pointLatencies.percentile(50) + "us" +
+            ", pointP99=" + stats.pointLatencies.percentile(99) + "us" +
+            ", sliceP50=" + stats.sliceLatencies.percentile(50) + "us" +
+            ", sliceP99=" + stats.sliceLatencies.percentile(99) + "us" +
+            ", tracedReads=" + traced +
+            ", droppedTraces=" + droppedTraces.get() +
+            ", avgScannedTombstones=" + (traced == 0 ? 0 : stats.tombstones.get() / traced);
+
+        reports.add(report);
+
+        println(cfg, "Tombstone interval [" + report + ']');
+    }
+
+    /** {@inheritDoc} */
+    @Override public void tearDown() throws Exception {
+        exec.shutdownNow();
+        traceExec.shutdownNow();
+
+        StringBuilder sb = new StringBuilder("Tombstone read path degradation [ttl=").append(args.ttl())
+            .append("s, deleteRate=").append(args.deleteRate())
+            .append(", rangeDeleteProportion=").append(args.rangeDeleteProportion()).append(']');
+
+        synchronized (reports) {
+            for (String report : reports)
+                sb.append(System.lineSeparator()).append("    ").append(report);
+        }
+
+        println(cfg, sb.toString());
+
+        super.tearDown();
+    }
+
+    /** {@inheritDoc} */
+    @Override protected String descriptionSuffix() {
+        String desc = "-ttl=" + args.ttl() + "-dr=" + args.deleteRate();
+
+        if (args.rangeDeleteProportion() > 0)
+            desc += "-rdp=" + args.rangeDeleteProportion();
+
+        return desc;
+    }
+
+    /**
+     * Statistics of a single interval.
+     */
+    private static class IntervalStatistics {
+        /** Point read latencies. */
+        private final CassandraLatencyHistogram pointLatencies = new CassandraLatencyHistogram();
+
+        /** Slice read latencies. */
+        private final CassandraLatencyHistogram sliceLatencies = new CassandraLatencyHistogram();
+
+        /** Traced reads with fetched traces. */
+        private final AtomicLong tracedReads = new AtomicLong();
+
+        /** Tombstones scanned by traced reads. */
+        private final AtomicLong tombstones = new AtomicLong();
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.yardstickframework.cassandra.workload;
+
+import org.yardstickframework.cassandra.*;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Workload definition: operation mix, key distribution and record size. Values are taken from benchmark
+ * arguments and can be overridden by a properties file using YCSB property names.
+ */
+public class CassandraWorkload {
+    /** Resolution of operation selection. */
+    private static final int RESOLUTION = 1 << 20;
+
+    /** Cumulative operation thresholds indexed by operation ordinal. */
+    private final int[] thresholds = new int[CassandraOperation.values().length];
+
+    /** Proportions indexed by operation ordinal. */
+    private final double[] proportions = new double[CassandraOperation.values().length];
+
+    /** Key distribution. */
+    private final CassandraKeyDistribution keyDist;
+
+    /** Key distribution name. */
+    private final String keyDistName;
+
+    /** Record size. */
+    private final int recordSize;
+
+    /** Maximum scan length. */
+    private final int maxScanLength;
+
+    /**
+     * @param args Arguments.
+     * @throws IOException If failed to read workload file.
+     */
+    public CassandraWorkload(CassandraBenchmarkArguments args) throws IOException {
+        Properties props = new Properties();
+
+        if (args.workloadFile() != null) {
+            try (InputStream in = new FileInputStream(args.workloadFile())) {
+                props.load(in);
+            }
+        }
+
+        proportions[CassandraOperation.READ.ordinal()] =
+            doubleProperty(props, "readproportion", args.readProportion());
+        proportions[CassandraOperation.UPDATE.ordinal()] =
+            doubleProperty(props, "updateproportion", args.updateProportion());
+        proportions[CassandraOperation.INSERT.ordinal()] =
+            doubleProperty(props, "insertproportion", args.insertProportion());
+        proportions[CassandraOperation.SCAN.ordinal()] =
+            doubleProperty(props, "scanproportion", args.scanProportion());
+        proportions[CassandraOperation.READ_MODIFY_WRITE.ordinal()] =
+            doubleProperty(props, "readmodifywriteproportion", args.readModifyWriteProportion());
+
+        double total = 0;
+
+        for (double p : proportions) {
+            if (p < 0 || Double.isNaN(p) || Double.isInfinite(p))
+                throw new IllegalArgumentException("Operation proportion must be a non-negative number: " + this);
+
+            total += p;
+        }
+
+        if (total <= 0)
+            throw new IllegalArgumentException("At least one operation proportion must be positive: " + this);
+
+        double cumulative = 0;
+
+        for (int i = 0; i < proportions.length; i++) {
+            proportions[i] /= total;
+
+            cumulative += proportions[i];
+
+            thresholds[i] = proportions[i] == 0 ? -1 : (int)Math.round(cumulative * RESOLUTION);
+        }
+
+        recordSize = intProperty(props, "fieldlength", args.recordSize());
+        maxScanLength = intProperty(props, "maxscanlength", args.maxScanLength());
+
+        if (recordSize <= 0)
+            throw new IllegalArgumentException("Record size must be positive: " + recordSize);
+
+        if (maxScanLength <= 0)
+            throw new IllegalArgumentException("Maximum scan length must be positive: " + maxScanLength);
+
+        if (args.range() <= 0)
+            throw new IllegalArgumentException("Key range must be positive: " + args.range());
+
+        String dist = props.getProperty("requestdistribution", args.keyDistribution()).trim();
+
+        double zipfConst = doubleProperty(props, "zipfianconstant", args.zipfianConstant());
+
+        if (!"uniform".equalsIgnoreCase(dist) && !(zipfConst > 0 && zipfConst < 1))
+            throw new IllegalArgumentException("Zipfian constant must be in range (0, 1): " + zipfConst);
+
+        keyDistName = dist.toLowerCase();
+
+        keyDist = CassandraKeyDistribution.create(dist, args.range(), zipfConst);
+    }
+
+    /**
+     * Chooses next operation. Does not allocate.
+     *
+     * @param rnd Random of the calling thread.
+     * @return Next operation.
+     */
+    public CassandraOperation nextOperation(ThreadLocalRandom rnd) {
+        int val = rnd.nextInt(RESOLUTION);
+
+        int last = 0;
+
+        for (int i = 0; i < thresholds.length; i++) {
+            if (thresholds[i] < 0)
+                continue;
+
+            if (val < thresholds[i])
+                return CassandraOperation.fromOrdinal(i);
+
+            last = i;
+        }
+
+        // Rounding remainder goes to the last operation with positive proportion.
+        return CassandraOperation.fromOrdinal(last);
+    }
+
+    /**
+     * @return Key distribution.
+     */
+    public CassandraKeyDistribution keyDistribution() {
+        return keyDist;
+    }
+
+    /**
+     * @return Record size in bytes.
+     */
+    public int recordSize() {
+        return recordSize;
+    }
+
+    /**
+     * @return Maximum scan length.
+     */
+    public int maxScanLength() {
+        return maxScanLength;
+    }
+
+    /**
+     * @return Effective operation mix, key distribution and record size in benchmark arguments notation.
+     */
+    public String description() {
+        StringBuilder sb = new StringBuilder();
+
+        String[] flags = {"-rp=", "-up=", "-ip=", "-scp=", "-rmwp="};
+
+        for (CassandraOperation op : CassandraOperation.values()) {
+            if (proportions[op.ordinal()] > 0)
+                sb.append(flags[op.ordinal()]).append(proportions[op.ordinal()]);
+        }
+
+        return sb.append("-kd=").append(keyDistName).append("-rs=").append(recordSize).toString();
+    }
+
+    /**
+     * @param props Properties.
+     * @param name Property name.
+     * @param dflt Default value.
+     * @return Property value.
+     */
+    private static double doubleProperty(Properties props, String name, double dflt) {
+        String val = props.getProperty(name);
+
+        try {
+            return val == null ? dflt : Double.parseDouble(val.trim());
+        }
+        catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid workload property [name=" + name + ", val=" + val + ']', e);
+        }
+    }
+
+    /**
+     * @param props Properties.
+     * @param name Property name.
+     * @param dflt Default value.
+     * @return Property value.
+     */
+    private static int intProperty(Properties props, String name, int dflt) {
+        String val = props.getProperty(name);
+
+        try {
+            return val == null ? dflt : Integer.parseInt(val.trim());
+        }
+        catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid workload property [name=" + name + ", val=" + val + ']', e);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        StringBuilder sb = new StringBuilder("Workload [");
+
+        for (CassandraOperation op : CassandraOperation.values())
+            sb.append(op.name().toLowerCase()).append('=').append(proportions[op.ordinal()]).append(", ");
+
+        return sb.append("keyDist=").append(keyDist)
+            .append(", recordSize=").append(recordSize)
+            .append(", maxScanLength=").append(maxScanLength)
+            .append(']').toString();
+    }
+}
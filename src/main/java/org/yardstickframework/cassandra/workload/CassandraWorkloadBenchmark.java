@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.yardstickframework.cassandra.workload;
+
+import com.datastax.driver.core.*;
+import org.yardstickframework.*;
+import org.yardstickframework.cassandra.*;
+import org.yardstickframework.cassandra.util.*;
+
+import java.nio.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.yardstickframework.BenchmarkUtils.*;
+
+/**
+ * Benchmark that replays a configurable mix of read, update, insert, scan and read-modify-write operations.
+ */
+public class CassandraWorkloadBenchmark extends CassandraAbstractBenchmark {
+    /** Number of threads that populate the table. */
+    private static final int POPULATE_THREAD_NUM = Runtime.getRuntime().availableProcessors() * 2;
+
+    /** Workload. */
+    private CassandraWorkload workload;
+
+    /** Insert keys, reads see only acknowledged ones. */
+    private CassandraAcknowledgedCounter insertKeys;
+
+    /** Record payload, shared by all writes. */
+    private byte[] payload;
+
+    /** Write prepared statement. */
+    private PreparedStatement putPs;
+
+    /** Read prepared statement. */
+    private PreparedStatement getPs;
+
+    /** Scan prepared statement. */
+    private PreparedStatement scanPs;
+
+    /** {@inheritDoc} */
+    @Override public void setUp(BenchmarkConfiguration cfg) throws Exception {
+        super.setUp(cfg);
+
+        workload = new CassandraWorkload(args);
+
+        println(cfg, "Using " + workload);
+
+        payload = new byte[workload.recordSize()];
+
+        new Random().nextBytes(payload);
+
+        session.execute("CREATE TABLE UserTable (" +
+            "  keyValue int PRIMARY KEY," +
+            "  field0 blob" +
+            ")" + schema.tableOptions() + ";");
+
+        putPs = session.prepare("INSERT INTO UserTable (keyValue, field0) VALUES (?, ?)")
+            .setConsistencyLevel(args.writeConsistency());
+
+        getPs = session.prepare("SELECT * FROM UserTable WHERE keyValue = ?")
+            .setConsistencyLevel(args.readConsistency());
+
+        scanPs = session.prepare("SELECT * FROM UserTable WHERE token(keyValue) >= token(?) LIMIT ?")
+            .setConsistencyLevel(args.readConsistency());
+
+        println(cfg, "Populating workload data...");
+
+        long start = System.nanoTime();
+
+        CassandraBenchmarkUtils.runMultiThreaded(new CassandraBenchmarkRunnable() {
+            @Override public void run(int threadIdx) throws Exception {
+                for (int i = threadIdx; i < args.range() && !Thread.currentThread().isInterrupted();
+                     i += POPULATE_THREAD_NUM)
+                    write(i);
+            }
+        }, POPULATE_THREAD_NUM, "populate-workload");
+
+        insertKeys = new CassandraAcknowledgedCounter(args.range());
+
+        println(cfg, "Finished populating workload data in " + ((System.nanoTime() - start) / 1_000_000) + "ms.");
+
+        resetStatistics();
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean test(Map<Object, Object> ctx) throws Exception {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+
+        switch (workload.nextOperation(rnd)) {
+            case READ:
+                read(nextKey(rnd));
+
+                break;
+
+            case UPDATE:
+                write(nextKey(rnd));
+
+                break;
+
+            case INSERT:
+                int insKey = insertKeys.next();
+
+                try {
+                    write(insKey);
+                }
+                finally {
+                    // Failed insert is acknowledged as well, otherwise the limit would never advance past it.
+                    insertKeys.acknowledge(insKey);
+                }
+
+                break;
+
+            case SCAN:
+                execute(scanPs.bind(nextKey(rnd), 1 + rnd.nextInt(workload.maxScanLength()))).all();
+
+                break;
+
+            case READ_MODIFY_WRITE:
+                int key = nextKey(rnd);
+
+                read(key);
+                write(key);
+
+                break;
+        }
+
+        return true;
+    }
+
+    /** {@inheritDoc} */
+    @Override protected String descriptionSuffix() {
+        return workload != null ? workload.description() : "";
+    }
+
+    /**
+     * @param rnd Random.
+     * @return Key of an existing record.
+     */
+    private int nextKey(ThreadLocalRandom rnd) {
+        return workload.keyDistribution().nextKey(rnd, insertKeys.limit());
+    }
+
+    /**
+     * @param key Key.
+     */
+    private void write(int key) {
+        execute(putPs.bind(key, ByteBuffer.wrap(payload)));
+    }
+
+    /**
+     * @param key Key.
+     */
+    private void read(int key) {
+        execute(getPs.bind(key)).one();
+    }
+}